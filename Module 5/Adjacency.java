@@ -0,0 +1,156 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The neighbors of every cell on a board, computed once per BoardShape.
+ *
+ * Neighbor positions are stored flat in row-major order: the neighbors of
+ * cell c are get(start(c)) through get(end(c) - 1). Tables are immutable
+ * and shared by every game and thread. The square sizes in regular use are
+ * built up front; any other shape, including rectangular and wrapping
+ * boards, is built the first time it is asked for and then reused, so
+ * every shape is searched through the same flat table.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public final class Adjacency {
+   private static final int MIN_CACHED = 4;
+   private static final int MAX_CACHED = 10;
+   private static final Adjacency[] COMMON = new Adjacency[MAX_CACHED + 1];
+   private static final ConcurrentMap<BoardShape, Adjacency> OTHERS =
+      new ConcurrentHashMap<BoardShape, Adjacency>();
+
+   static {
+      for (int n = MIN_CACHED; n <= MAX_CACHED; n++) {
+         COMMON[n] = new Adjacency(BoardShape.square(n));
+      }
+   }
+
+   private final BoardShape shape;
+   // the neighbors of cell c are neighbors[first[c]] to neighbors[first[c + 1] - 1]
+   private final int[] first;
+   private final int[] neighbors;
+
+   private Adjacency(BoardShape shape) {
+      this.shape = shape;
+      int rows = shape.rows();
+      int cols = shape.cols();
+      boolean fourWay = shape.connectivity() == BoardShape.Connectivity.FOUR_WAY;
+      first = new int[rows * cols + 1];
+      int[] scratch = new int[rows * cols * 8];
+      int count = 0;
+      for (int row = 0; row < rows; row++) {
+         for (int col = 0; col < cols; col++) {
+            int cell = row * cols + col;
+            first[cell] = count;
+            // offsets in row-major order, so a bounded board lists its
+            // neighbors in row-major order too
+            for (int di = -1; di <= 1; di++) {
+               for (int dj = -1; dj <= 1; dj++) {
+                  if ((di == 0 && dj == 0) || (fourWay && di != 0 && dj != 0)) {
+                     continue;
+                  }
+                  int i = row + di;
+                  int j = col + dj;
+                  if (shape.wraps()) {
+                     i = (i + rows) % rows;
+                     j = (j + cols) % cols;
+                  }
+                  else if (i < 0 || i >= rows || j < 0 || j >= cols) {
+                     continue;
+                  }
+                  int next = i * cols + j;
+                  // on narrow wrapping boards two offsets can reach the same cell
+                  if (next != cell && !contains(scratch, first[cell], count, next)) {
+                     scratch[count++] = next;
+                  }
+               }
+            }
+         }
+      }
+      first[rows * cols] = count;
+      neighbors = Arrays.copyOf(scratch, count);
+   }
+
+   private static boolean contains(int[] cells, int from, int to, int cell) {
+      for (int k = from; k < to; k++) {
+         if (cells[k] == cell) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Returns the neighbor table for an NxN board.
+    *
+    * @param n the number of rows (and columns) on the board
+    * @return the shared table for that size
+    * @throws IllegalArgumentException if n < 0
+    */
+   public static Adjacency of(int n) {
+      if (n < 0) {
+         throw new IllegalArgumentException();
+      }
+      if (n >= MIN_CACHED && n <= MAX_CACHED) {
+         return COMMON[n];
+      }
+      return OTHERS.computeIfAbsent(BoardShape.square(n), Adjacency::new);
+   }
+
+   /**
+    * Returns the neighbor table for a board of the given shape.
+    *
+    * @param shape the layout of the board
+    * @return the shared table for that shape
+    * @throws IllegalArgumentException if shape is null
+    */
+   public static Adjacency of(BoardShape shape) {
+      if (shape == null) {
+         throw new IllegalArgumentException();
+      }
+      int n = shape.rows();
+      if (shape.equals(BoardShape.square(n)) && n >= MIN_CACHED && n <= MAX_CACHED) {
+         return COMMON[n];
+      }
+      return OTHERS.computeIfAbsent(shape, Adjacency::new);
+   }
+
+   /**
+    * Returns the number of rows; for the square boards made by of(int)
+    * this is N.
+    */
+   public int size() {
+      return shape.rows();
+   }
+
+   /**
+    * Returns the shape this table describes.
+    */
+   public BoardShape shape() {
+      return shape;
+   }
+
+   /**
+    * Returns the index of the first neighbor of cell.
+    */
+   public int start(int cell) {
+      return first[cell];
+   }
+
+   /**
+    * Returns one past the index of the last neighbor of cell.
+    */
+   public int end(int cell) {
+      return first[cell + 1];
+   }
+
+   /**
+    * Returns the row-major position of the neighbor at index k.
+    */
+   public int get(int k) {
+      return neighbors[k];
+   }
+}
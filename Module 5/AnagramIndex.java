@@ -0,0 +1,218 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Finds the words that can be made from a set of letters.
+ *
+ * Every word is filed under its signature: its letters A to Z in sorted
+ * order, so "TEA", "EAT" and "ATE" all share "AET". The signatures are
+ * kept in a Trie. A query walks that trie taking each letter only as
+ * often as the tiles supply it, so it visits only signatures that can be
+ * made from the tiles, however large the lexicon is.
+ *
+ * The letters are counted without regard to how they are grouped into
+ * tiles, so a word that splits a tile such as "QU" is still returned. The
+ * results are therefore candidates, which makes the index a safe filter
+ * to run before a board search.
+ *
+ * A query can also give each word's position among the words the index
+ * was built from, so a caller that built it from a sorted list can mark
+ * the matches in that list without looking any of them up.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class AnagramIndex {
+   private static final int LETTERS = 26;
+
+   private final Trie signatures;
+   // the indexed words, in the order they were given
+   private final String[] words;
+   // the positions in words filed under each signature node, or null
+   private final int[][] idsAt;
+
+   private AnagramIndex(List<String> words, Map<String, List<Integer>> bySignature) {
+      signatures = Trie.of(bySignature.keySet());
+      this.words = words.toArray(new String[words.size()]);
+      idsAt = new int[signatures.nodeCount()][];
+      for (Map.Entry<String, List<Integer>> entry : bySignature.entrySet()) {
+         List<Integer> ids = entry.getValue();
+         int[] at = new int[ids.size()];
+         for (int k = 0; k < at.length; k++) {
+            at[k] = ids.get(k);
+         }
+         idsAt[signatures.walk(Lexicon.ROOT, entry.getKey())] = at;
+      }
+   }
+
+   /**
+    * Builds an index over the given words. Words are upper-cased; null and
+    * empty entries are ignored.
+    *
+    * @param source the words to index
+    * @return the index
+    * @throws IllegalArgumentException if source is null
+    */
+   public static AnagramIndex of(Iterable<String> source) {
+      if (source == null) {
+         throw new IllegalArgumentException();
+      }
+      List<String> words = new ArrayList<String>();
+      Map<String, List<Integer>> bySignature = new HashMap<String, List<Integer>>();
+      for (String word : source) {
+         if (word != null && !word.isEmpty()) {
+            String upper = word.toUpperCase(Locale.ROOT);
+            bySignature.computeIfAbsent(signature(upper), k -> new ArrayList<Integer>())
+               .add(words.size());
+            words.add(upper);
+         }
+      }
+      return new AnagramIndex(words, bySignature);
+   }
+
+   /**
+    * Builds an index over every word in a lexicon.
+    *
+    * @param lexicon the words to index
+    * @return the index
+    * @throws IllegalArgumentException if lexicon is null
+    */
+   public static AnagramIndex of(Lexicon lexicon) {
+      if (lexicon == null) {
+         throw new IllegalArgumentException();
+      }
+      List<String> words = new ArrayList<String>(lexicon.size());
+      lexicon.forEachWord(words::add);
+      return of(words);
+   }
+
+   // the letters A to Z of an upper-cased word, sorted
+   private static String signature(String word) {
+      int[] counts = new int[LETTERS];
+      int letters = 0;
+      for (int i = 0; i < word.length(); i++) {
+         int c = word.charAt(i) - 'A';
+         if (c >= 0 && c < LETTERS) {
+            counts[c]++;
+            letters++;
+         }
+      }
+      char[] sorted = new char[letters];
+      int at = 0;
+      for (int c = 0; c < LETTERS; c++) {
+         for (int k = 0; k < counts[c]; k++) {
+            sorted[at++] = (char) ('A' + c);
+         }
+      }
+      return new String(sorted);
+   }
+
+   /**
+    * Returns the number of words in the index.
+    */
+   public int size() {
+      return words.length;
+   }
+
+   /**
+    * Finds the words of at least the minimum length that can be made from
+    * the letters of the given tiles.
+    *
+    * @param tiles the tiles to draw letters from
+    * @param minimumWordLength The minimum number of characters per word
+    * @return the candidate words, upper-cased and sorted
+    * @throws IllegalArgumentException if tiles is null or holds null, or if
+    *     minimumWordLength < 1
+    */
+   public SortedSet<String> wordsFrom(String[] tiles, int minimumWordLength) {
+      if (tiles == null || minimumWordLength < 1) {
+         throw new IllegalArgumentException();
+      }
+      int[] available = new int[LETTERS];
+      int letters = 0;
+      for (String tile : tiles) {
+         if (tile == null) {
+            throw new IllegalArgumentException();
+         }
+         for (int k = 0; k < tile.length(); k++) {
+            int c = Character.toUpperCase(tile.charAt(k)) - 'A';
+            if (c >= 0 && c < LETTERS) {
+               available[c]++;
+            }
+            letters++;
+         }
+      }
+      SortedSet<String> words = new TreeSet<String>();
+      forEachWord(available, minimumWordLength, letters, words::add);
+      return words;
+   }
+
+   /**
+    * Passes every word that uses no letter A to Z more often than
+    * available allows, and whose length is between minLength and
+    * maxLength, to action. Characters other than A to Z are not counted
+    * against available.
+    *
+    * @param available how many of each letter A to Z may be used; it is
+    *     changed during the call but restored before it returns
+    * @param minLength the fewest characters a word may have
+    * @param maxLength the most characters a word may have
+    * @param action receives the words
+    * @throws IllegalArgumentException if available does not have 26 counts
+    */
+   public void forEachWord(int[] available, int minLength, int maxLength,
+         Consumer<? super String> action) {
+      forEachIndex(available, minLength, maxLength, id -> action.accept(words[id]));
+   }
+
+   /**
+    * Passes the same words as forEachWord, but as their positions among
+    * the non-null, non-empty words the index was built from.
+    *
+    * @param available how many of each letter A to Z may be used; it is
+    *     changed during the call but restored before it returns
+    * @param minLength the fewest characters a word may have
+    * @param maxLength the most characters a word may have
+    * @param action receives the positions
+    * @throws IllegalArgumentException if available does not have 26 counts
+    */
+   public void forEachIndex(int[] available, int minLength, int maxLength,
+         IntConsumer action) {
+      if (available == null || available.length != LETTERS) {
+         throw new IllegalArgumentException();
+      }
+      collect(Lexicon.ROOT, available, minLength, maxLength, action);
+   }
+
+   private void collect(int node, int[] available, int minLength, int maxLength,
+         IntConsumer action) {
+      int[] ids = idsAt[node];
+      if (ids != null) {
+         for (int id : ids) {
+            int length = words[id].length();
+            if (length >= minLength && length <= maxLength) {
+               action.accept(id);
+            }
+         }
+      }
+      // signatures are sorted, so only letters from here on can follow
+      int mask = signatures.letterMask(node);
+      while (mask != 0) {
+         int c = Integer.numberOfTrailingZeros(mask);
+         mask &= mask - 1;
+         if (available[c] > 0) {
+            available[c]--;
+            collect(signatures.child(node, (char) ('A' + c)), available,
+               minLength, maxLength, action);
+            available[c]++;
+         }
+      }
+   }
+}
@@ -0,0 +1,119 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Solves many boards against one loaded lexicon.
+ *
+ * Boards are solved concurrently, one task per board. Walkers are kept in
+ * a pool and handed from one board to the next, so their buffers and
+ * visited arrays are only allocated once per worker rather than once per
+ * board.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class BatchSolver {
+   private final Lexicon lexicon;
+   private final ForkJoinPool pool;
+   private final Queue<BoardWalker> walkers = new ConcurrentLinkedQueue<BoardWalker>();
+
+   /**
+    * Creates a batch solver that runs on the common pool.
+    *
+    * @param lexicon the lexicon shared by every board
+    * @throws IllegalArgumentException if lexicon is null
+    */
+   public BatchSolver(Lexicon lexicon) {
+      this(lexicon, ForkJoinPool.commonPool());
+   }
+
+   /**
+    * Creates a batch solver that runs on the given pool.
+    *
+    * @param lexicon the lexicon shared by every board
+    * @param pool the pool the boards are solved on
+    * @throws IllegalArgumentException if lexicon or pool is null
+    */
+   public BatchSolver(Lexicon lexicon, ForkJoinPool pool) {
+      if (lexicon == null || pool == null) {
+         throw new IllegalArgumentException();
+      }
+      this.lexicon = lexicon;
+      this.pool = pool;
+   }
+
+   /**
+    * Retrieves all scorable words on each board, following the rules of
+    * WordSearchGame.getAllScorableWords.
+    *
+    * @param boards the boards to solve, each an array of N^2 tiles in
+    *     row-major order
+    * @param minimumWordLength The minimum allowed length (i.e., number of
+    *     characters) for any word found on a board.
+    * @return the words found on each board, in the same order as boards
+    * @throws IllegalArgumentException if boards is null, if any board is
+    *     null or not square, or if minimumWordLength < 1
+    */
+   public List<SortedSet<String>> solveAll(List<String[]> boards, int minimumWordLength) {
+      if (boards == null || minimumWordLength < 1) {
+         throw new IllegalArgumentException();
+      }
+      // check every board as setBoard would before any work starts
+      for (String[] letterArray : boards) {
+         if (letterArray == null || Math.sqrt(letterArray.length) % 1 != 0) {
+            throw new IllegalArgumentException();
+         }
+      }
+      List<ForkJoinTask<SortedSet<String>>> tasks =
+         new ArrayList<ForkJoinTask<SortedSet<String>>>();
+      for (String[] letterArray : boards) {
+         tasks.add(pool.submit(() -> solve(letterArray, minimumWordLength)));
+      }
+      List<SortedSet<String>> results = new ArrayList<SortedSet<String>>();
+      for (ForkJoinTask<SortedSet<String>> task : tasks) {
+         results.add(task.join());
+      }
+      return results;
+   }
+
+   /**
+    * Retrieves all scorable words on each board in the stream.
+    *
+    * @param boards the boards to solve
+    * @param minimumWordLength The minimum allowed length for any word.
+    * @return the words found on each board, in encounter order
+    * @throws IllegalArgumentException if boards is null, if any board is
+    *     null or not square, or if minimumWordLength < 1
+    */
+   public List<SortedSet<String>> solveAll(Stream<String[]> boards, int minimumWordLength) {
+      if (boards == null) {
+         throw new IllegalArgumentException();
+      }
+      return solveAll(boards.collect(Collectors.toList()), minimumWordLength);
+   }
+
+   // solves one board with a walker borrowed from the pool
+   private SortedSet<String> solve(String[] letterArray, int minimumWordLength) {
+      BoardWalker walker = walkers.poll();
+      if (walker == null) {
+         walker = new BoardWalker(lexicon);
+      }
+      try {
+         walker.setBoard(letterArray);
+         SortedSet<String> words = new TreeSet<String>();
+         walker.solve(minimumWordLength, words);
+         return words;
+      }
+      finally {
+         walkers.offer(walker);
+      }
+   }
+}
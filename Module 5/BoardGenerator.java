@@ -0,0 +1,176 @@
+import java.util.Random;
+
+/**
+ * Generates random square boards for WordSearchGame.setBoard.
+ *
+ * Tiles are drawn either from a weighted letter pool, where a letter that
+ * appears k times is k times as likely, or by rolling a set of dice and
+ * shuffling them into the cells as a physical Boggle set would be. Either
+ * way a tile can be swapped for a multi-character tile such as "QU" at a
+ * chosen rate. The same seed and settings always give the same boards.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class BoardGenerator {
+   /** Letters weighted roughly by their frequency in English text. */
+   public static final String ENGLISH = "EEEEEEEEEEEETTTTTTTTTAAAAAAAAOOOOOOOIIIIIIINNNNNNN"
+      + "SSSSSSHHHHHHRRRRRRDDDDLLLLCCCUUUMMWWFFGGYYPPBVKJXQZ";
+
+   /** The sixteen dice of classic Boggle, with the Qu face as "QU". */
+   public static final String[][] BOGGLE_DICE = {
+      {"A", "A", "C", "I", "O", "T"}, {"A", "B", "I", "L", "T", "Y"},
+      {"A", "B", "J", "M", "O", "QU"}, {"A", "C", "D", "E", "M", "P"},
+      {"A", "C", "E", "L", "R", "S"}, {"A", "D", "E", "N", "V", "Z"},
+      {"A", "H", "M", "O", "R", "S"}, {"B", "I", "F", "O", "R", "X"},
+      {"D", "E", "N", "O", "S", "W"}, {"D", "K", "N", "O", "T", "U"},
+      {"E", "E", "F", "H", "I", "Y"}, {"E", "G", "K", "L", "U", "Y"},
+      {"E", "G", "I", "N", "T", "V"}, {"E", "H", "I", "N", "P", "S"},
+      {"E", "L", "P", "S", "T", "U"}, {"G", "I", "L", "R", "U", "W"}
+      };
+
+   /** Common multi-character tiles. */
+   public static final String[] MULTI_TILES = {"QU", "TH", "ER", "IN"};
+
+   private final Random rng;
+   private String letters = ENGLISH;
+   private String[][] dice;
+   private String[] multiTiles;
+   private int multiOneIn;
+
+   /**
+    * Creates a generator that draws from ENGLISH with no multi-character
+    * tiles.
+    *
+    * @param seed the seed for the random number generator
+    */
+   public BoardGenerator(long seed) {
+      rng = new Random(seed);
+   }
+
+   /**
+    * Draws each tile from a weighted pool of letters.
+    *
+    * @param pool the letters to draw from, each repeated by its weight
+    * @return this generator
+    * @throws IllegalArgumentException if pool is null or empty
+    */
+   public BoardGenerator letters(String pool) {
+      if (pool == null || pool.isEmpty()) {
+         throw new IllegalArgumentException();
+      }
+      letters = pool;
+      dice = null;
+      return this;
+   }
+
+   /**
+    * Rolls the given dice for the tiles. The dice are shuffled into the
+    * cells; boards with more cells than dice use as many whole sets as
+    * needed.
+    *
+    * @param set the faces of each die
+    * @return this generator
+    * @throws IllegalArgumentException if set is null or empty, or if any
+    *     die is null or has no faces
+    */
+   public BoardGenerator dice(String[][] set) {
+      if (set == null || set.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      for (String[] die : set) {
+         if (die == null || die.length == 0) {
+            throw new IllegalArgumentException();
+         }
+      }
+      dice = set.clone();
+      return this;
+   }
+
+   /**
+    * Replaces about one tile in oneIn with a tile chosen uniformly from
+    * tiles.
+    *
+    * @param tiles the multi-character tiles to use
+    * @param oneIn the inverse of the rate at which they appear
+    * @return this generator
+    * @throws IllegalArgumentException if tiles is null or empty, or if
+    *     oneIn < 1
+    */
+   public BoardGenerator multiTiles(String[] tiles, int oneIn) {
+      if (tiles == null || tiles.length == 0 || oneIn < 1) {
+         throw new IllegalArgumentException();
+      }
+      multiTiles = tiles.clone();
+      multiOneIn = oneIn;
+      return this;
+   }
+
+   /**
+    * Generates the next board.
+    *
+    * @param n the number of rows and columns
+    * @return an array of N^2 tiles in row-major order
+    * @throws IllegalArgumentException if n < 1
+    */
+   public String[] next(int n) {
+      if (n < 1) {
+         throw new IllegalArgumentException();
+      }
+      String[] board = new String[n * n];
+      int[] order = dice == null ? null : shuffledDice(board.length);
+      for (int i = 0; i < board.length; i++) {
+         if (multiTiles != null && rng.nextInt(multiOneIn) == 0) {
+            board[i] = multiTiles[rng.nextInt(multiTiles.length)];
+         }
+         else if (order != null) {
+            String[] die = dice[order[i]];
+            board[i] = die[rng.nextInt(die.length)];
+         }
+         else {
+            board[i] = String.valueOf(letters.charAt(rng.nextInt(letters.length())));
+         }
+      }
+      return board;
+   }
+
+   /**
+    * Generates count boards.
+    *
+    * @param n the number of rows and columns
+    * @param count the number of boards
+    * @return count arrays of N^2 tiles in row-major order
+    * @throws IllegalArgumentException if n < 1 or count < 0
+    */
+   public String[][] boards(int n, int count) {
+      if (count < 0) {
+         throw new IllegalArgumentException();
+      }
+      String[][] boards = new String[count][];
+      for (int i = 0; i < count; i++) {
+         boards[i] = next(n);
+      }
+      return boards;
+   }
+
+   // which die lands in each of the cells, shuffled a whole set at a time
+   private int[] shuffledDice(int cells) {
+      int[] order = new int[cells];
+      for (int start = 0; start < cells; start += dice.length) {
+         int end = Math.min(start + dice.length, cells);
+         int[] set = new int[dice.length];
+         for (int i = 0; i < set.length; i++) {
+            set[i] = i;
+         }
+         // Fisher-Yates
+         for (int i = set.length - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int swap = set[i];
+            set[i] = set[j];
+            set[j] = swap;
+         }
+         System.arraycopy(set, 0, order, start, end - start);
+      }
+      return order;
+   }
+}
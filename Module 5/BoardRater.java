@@ -0,0 +1,222 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Rates boards by the most a player could score on them.
+ *
+ * The best score is what getScoreForWords gives for every scorable word on
+ * the board: each distinct word of at least the minimum length earns its
+ * length minus the minimum, plus one. The rater adds this up during the
+ * search itself. A word is recognised by the lexicon node it ends at,
+ * and each node is stamped with the number of the rating that last
+ * counted it, so no strings or sets are built and nothing is cleared
+ * between boards.
+ *
+ * A rater is not thread safe; scores and rank rate many boards at once
+ * with one rater per worker.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class BoardRater {
+   private final BoardWalker walker;
+   // stamps[node] == epoch once the word ending at node has been counted
+   private int[] stamps = new int[1024];
+   private int epoch;
+
+   private int min;
+   private int score;
+   private int words;
+   private int[] histogram;
+
+   /**
+    * Creates a rater over the given lexicon.
+    *
+    * @param lexicon the lexicon words are checked against
+    * @throws IllegalArgumentException if lexicon is null
+    */
+   public BoardRater(Lexicon lexicon) {
+      if (lexicon == null) {
+         throw new IllegalArgumentException();
+      }
+      walker = new BoardWalker(lexicon);
+   }
+
+   /**
+    * Rates one board.
+    *
+    * @param letterArray the N^2 tiles of the board in row-major order
+    * @param minimumWordLength The minimum number of characters required per word
+    * @return the best score, word count and score histogram of the board
+    * @throws IllegalArgumentException if letterArray is null or not square,
+    *     or if minimumWordLength < 1
+    */
+   public Rating rate(String[] letterArray, int minimumWordLength) {
+      if (minimumWordLength < 1) {
+         throw new IllegalArgumentException();
+      }
+      walker.setBoard(letterArray);
+      int letters = 0;
+      for (String tile : letterArray) {
+         letters += tile.length();
+      }
+      min = minimumWordLength;
+      score = 0;
+      words = 0;
+      histogram = new int[Math.max(1, letters - minimumWordLength + 2)];
+      if (epoch == Integer.MAX_VALUE) {
+         Arrays.fill(stamps, 0);
+         epoch = 0;
+      }
+      epoch++;
+      walker.solveNodes(minimumWordLength, this::count);
+      return new Rating(score, words, histogram);
+   }
+
+   // counts the word ending at node unless this rating already has
+   private boolean count(int node, int length) {
+      if (node >= stamps.length) {
+         stamps = Arrays.copyOf(stamps, Math.max(node + 1, stamps.length * 2));
+      }
+      if (stamps[node] != epoch) {
+         stamps[node] = epoch;
+         int points = length - (min - 1);
+         score += points;
+         words++;
+         histogram[points]++;
+      }
+      return true;
+   }
+
+   /**
+    * Rates many boards at once on the common pool.
+    *
+    * @param lexicon the lexicon words are checked against
+    * @param boards the boards to rate, each an array of N^2 tiles in
+    *     row-major order
+    * @param minimumWordLength The minimum number of characters required per word
+    * @return the best score of each board, in the same order as boards
+    * @throws IllegalArgumentException if lexicon or boards is null, if any
+    *     board is null or not square, or if minimumWordLength < 1
+    */
+   public static int[] scores(Lexicon lexicon, List<String[]> boards, int minimumWordLength) {
+      if (lexicon == null || boards == null || minimumWordLength < 1) {
+         throw new IllegalArgumentException();
+      }
+      for (String[] letterArray : boards) {
+         if (letterArray == null || Math.sqrt(letterArray.length) % 1 != 0) {
+            throw new IllegalArgumentException();
+         }
+      }
+      Queue<BoardRater> raters = new ConcurrentLinkedQueue<BoardRater>();
+      ForkJoinPool pool = ForkJoinPool.commonPool();
+      List<ForkJoinTask<Integer>> tasks = new ArrayList<ForkJoinTask<Integer>>();
+      for (String[] letterArray : boards) {
+         tasks.add(pool.submit(() -> {
+            BoardRater rater = raters.poll();
+            if (rater == null) {
+               rater = new BoardRater(lexicon);
+            }
+            try {
+               return rater.rate(letterArray, minimumWordLength).getScore();
+            }
+            finally {
+               raters.offer(rater);
+            }
+         }));
+      }
+      int[] scores = new int[boards.size()];
+      for (int i = 0; i < scores.length; i++) {
+         scores[i] = tasks.get(i).join();
+      }
+      return scores;
+   }
+
+   /**
+    * Picks the boards with the highest best score.
+    *
+    * @param lexicon the lexicon words are checked against
+    * @param boards the candidate boards
+    * @param minimumWordLength The minimum number of characters required per word
+    * @param top how many boards to pick
+    * @return the positions in boards of the richest boards, best first;
+    *     boards with equal scores keep their order
+    * @throws IllegalArgumentException if top < 0, or for the reasons
+    *     scores does
+    */
+   public static int[] rank(Lexicon lexicon, List<String[]> boards, int minimumWordLength,
+         int top) {
+      if (top < 0) {
+         throw new IllegalArgumentException();
+      }
+      int[] scores = scores(lexicon, boards, minimumWordLength);
+      // sort score and position together, best score then lowest position first
+      long[] keys = new long[scores.length];
+      for (int i = 0; i < keys.length; i++) {
+         keys[i] = ((long) -scores[i] << 32) | i;
+      }
+      Arrays.sort(keys);
+      int[] best = new int[Math.min(top, keys.length)];
+      for (int i = 0; i < best.length; i++) {
+         best[i] = (int) keys[i];
+      }
+      return best;
+   }
+
+   /**
+    * What the best player could score on one board.
+    */
+   public static final class Rating {
+      private final int score;
+      private final int words;
+      private final int[] histogram;
+
+      Rating(int score, int words, int[] histogram) {
+         this.score = score;
+         this.words = words;
+         this.histogram = histogram;
+      }
+
+      /**
+       * Returns the total score of every scorable word on the board.
+       */
+      public int getScore() {
+         return score;
+      }
+
+      /**
+       * Returns the number of distinct scorable words on the board.
+       */
+      public int getWords() {
+         return words;
+      }
+
+      /**
+       * Returns the number of words worth the given number of points.
+       *
+       * @param points the points per word
+       * @return how many scorable words earn exactly that many points
+       */
+      public int getWordsWorth(int points) {
+         return points >= 0 && points < histogram.length ? histogram[points] : 0;
+      }
+
+      /**
+       * Returns the most any one word on the board is worth, or 0 if there
+       * are no scorable words.
+       */
+      public int getMaxPoints() {
+         for (int points = histogram.length - 1; points > 0; points--) {
+            if (histogram[points] > 0) {
+               return points;
+            }
+         }
+         return 0;
+      }
+   }
+}
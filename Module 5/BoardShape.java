@@ -0,0 +1,116 @@
+/**
+ * Describes the layout of a board: how many rows and columns it has,
+ * whether its edges wrap around, and which cells count as neighbors.
+ *
+ * The classic game is a square board with no wrapping whose cells touch
+ * all eight cells around them. A wrapping (toroidal) board treats the
+ * last row as above the first and the last column as left of the first.
+ * Shapes are immutable values; Adjacency builds each shape's neighbor
+ * table once and shares it.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public final class BoardShape {
+
+   /**
+    * Which of the cells around a cell are its neighbors.
+    */
+   public enum Connectivity {
+      /** The eight cells sharing a side or a corner. */
+      EIGHT_WAY,
+      /** The four cells sharing a side. */
+      FOUR_WAY
+   }
+
+   private final int rows;
+   private final int cols;
+   private final boolean wrap;
+   private final Connectivity connectivity;
+
+   /**
+    * Creates a shape.
+    *
+    * @param rows the number of rows
+    * @param cols the number of columns
+    * @param wrap true if paths may leave one edge and enter the opposite one
+    * @param connectivity which surrounding cells are neighbors
+    * @throws IllegalArgumentException if rows or cols is negative, or if
+    *     connectivity is null
+    */
+   public BoardShape(int rows, int cols, boolean wrap, Connectivity connectivity) {
+      if (rows < 0 || cols < 0 || connectivity == null) {
+         throw new IllegalArgumentException();
+      }
+      this.rows = rows;
+      this.cols = cols;
+      this.wrap = wrap;
+      this.connectivity = connectivity;
+   }
+
+   /**
+    * Returns the classic NxN shape: no wrapping, eight neighbors.
+    *
+    * @param n the number of rows and columns
+    * @return the shape
+    * @throws IllegalArgumentException if n < 0
+    */
+   public static BoardShape square(int n) {
+      return new BoardShape(n, n, false, Connectivity.EIGHT_WAY);
+   }
+
+   /**
+    * Returns the number of rows.
+    */
+   public int rows() {
+      return rows;
+   }
+
+   /**
+    * Returns the number of columns.
+    */
+   public int cols() {
+      return cols;
+   }
+
+   /**
+    * Returns the number of cells, rows times columns.
+    */
+   public int cells() {
+      return rows * cols;
+   }
+
+   /**
+    * Returns true if the edges wrap around.
+    */
+   public boolean wraps() {
+      return wrap;
+   }
+
+   /**
+    * Returns which surrounding cells are neighbors.
+    */
+   public Connectivity connectivity() {
+      return connectivity;
+   }
+
+   @Override
+   public boolean equals(Object other) {
+      if (!(other instanceof BoardShape)) {
+         return false;
+      }
+      BoardShape shape = (BoardShape) other;
+      return rows == shape.rows && cols == shape.cols && wrap == shape.wrap
+         && connectivity == shape.connectivity;
+   }
+
+   @Override
+   public int hashCode() {
+      return ((rows * 31 + cols) * 31 + (wrap ? 1 : 0)) * 31 + connectivity.hashCode();
+   }
+
+   @Override
+   public String toString() {
+      return rows + "x" + cols + (wrap ? " wrapping" : "") + " " + connectivity;
+   }
+}
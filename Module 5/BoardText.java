@@ -0,0 +1,133 @@
+import java.io.IOException;
+
+/**
+ * Writes boards in the format getBoard returns: one line per row, with the
+ * row's tiles separated by ", " inside square brackets.
+ *
+ * The text is written straight to its destination, and render sizes its
+ * StringBuilder exactly, so a board costs time and space linear in its
+ * text.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public final class BoardText {
+
+   private BoardText() {
+   }
+
+   /**
+    * Renders a board held as rows.
+    *
+    * @param board the rows of the board
+    * @return the board's text
+    */
+   public static String render(String[][] board) {
+      int length = 0;
+      for (String[] row : board) {
+         length += 3 + 2 * Math.max(0, row.length - 1);
+         for (String tile : row) {
+            length += String.valueOf(tile).length();
+         }
+      }
+      StringBuilder boardOut = new StringBuilder(length);
+      try {
+         append(boardOut, board);
+      }
+      catch (IOException e) {
+         // a StringBuilder never throws
+         throw new IllegalStateException();
+      }
+      return boardOut.toString();
+   }
+
+   /**
+    * Renders an N x N board held in row-major order.
+    *
+    * @param tiles the tiles of the board in row-major order
+    * @param n the number of rows and columns
+    * @return the board's text
+    */
+   public static String render(String[] tiles, int n) {
+      return render(tiles, n, n);
+   }
+
+   /**
+    * Renders a board of rows x cols tiles held in row-major order.
+    *
+    * @param tiles the tiles of the board in row-major order
+    * @param rows the number of rows
+    * @param cols the number of columns
+    * @return the board's text
+    */
+   public static String render(String[] tiles, int rows, int cols) {
+      int length = rows * (3 + 2 * Math.max(0, cols - 1));
+      for (String tile : tiles) {
+         length += String.valueOf(tile).length();
+      }
+      StringBuilder boardOut = new StringBuilder(length);
+      try {
+         append(boardOut, tiles, rows, cols);
+      }
+      catch (IOException e) {
+         // a StringBuilder never throws
+         throw new IllegalStateException();
+      }
+      return boardOut.toString();
+   }
+
+   /**
+    * Writes a board held as rows.
+    *
+    * @param out where the text is written
+    * @param board the rows of the board
+    * @throws IOException if out cannot be written
+    */
+   public static void append(Appendable out, String[][] board) throws IOException {
+      for (String[] row : board) {
+         out.append('[');
+         for (int j = 0; j < row.length; j++) {
+            if (j > 0) {
+               out.append(", ");
+            }
+            out.append(row[j]);
+         }
+         out.append("]\n");
+      }
+   }
+
+   /**
+    * Writes an N x N board held in row-major order.
+    *
+    * @param out where the text is written
+    * @param tiles the tiles of the board in row-major order
+    * @param n the number of rows and columns
+    * @throws IOException if out cannot be written
+    */
+   public static void append(Appendable out, String[] tiles, int n) throws IOException {
+      append(out, tiles, n, n);
+   }
+
+   /**
+    * Writes a board of rows x cols tiles held in row-major order.
+    *
+    * @param out where the text is written
+    * @param tiles the tiles of the board in row-major order
+    * @param rows the number of rows
+    * @param cols the number of columns
+    * @throws IOException if out cannot be written
+    */
+   public static void append(Appendable out, String[] tiles, int rows, int cols)
+         throws IOException {
+      for (int i = 0; i < rows; i++) {
+         out.append('[');
+         for (int j = 0; j < cols; j++) {
+            if (j > 0) {
+               out.append(", ");
+            }
+            out.append(tiles[i * cols + j]);
+         }
+         out.append("]\n");
+      }
+   }
+}
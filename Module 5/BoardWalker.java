@@ -0,0 +1,408 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Finds every scorable word on a board without allocating per step.
+ *
+ * The current path is kept in one reusable char buffer, the search keeps
+ * its place in the lexicon as a node handle, neighbors come from the
+ * shared Adjacency tables, and every word goes to a single sink supplied
+ * by the caller. The only objects created during a solve are whatever the
+ * sink makes of the words it is given.
+ *
+ * A walker is not thread safe; give each thread its own.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class BoardWalker {
+   private final Lexicon lexicon;
+   // upper-cased tiles in row-major order
+   private char[][] tiles;
+   private Adjacency adjacency;
+   private boolean[] visited;
+   private char[] buffer;
+   // the cells of the current path
+   private int[] trail;
+
+   private int min;
+   private WordSink found;
+   private NodeSink nodes;
+   private boolean stopped;
+
+   /**
+    * Receives each word as the walker finds it. The arrays passed in are
+    * the walker's own buffers and are only valid during the call.
+    */
+   public interface WordSink {
+      /**
+       * Called once for every path that spells a word.
+       *
+       * @param letters the upper-cased word is letters[0] to letters[length - 1]
+       * @param length the number of letters in the word
+       * @param path the row-major cells of the path are path[0] to path[cells - 1]
+       * @param cells the number of cells in the path
+       * @return true to keep searching, false to stop
+       */
+      boolean found(char[] letters, int length, int[] path, int cells);
+   }
+
+   /**
+    * Receives the lexicon node of each word as the walker finds it, for
+    * callers that need no letters at all. The same word always ends at the
+    * same node, so the node identifies the word.
+    */
+   public interface NodeSink {
+      /**
+       * Called once for every path that spells a word.
+       *
+       * @param node the lexicon node the word ends at
+       * @param length the number of letters in the word
+       * @return true to keep searching, false to stop
+       */
+      boolean found(int node, int length);
+   }
+
+   /**
+    * Creates a walker over the given lexicon.
+    *
+    * @param lexicon the lexicon words are checked against
+    * @throws IllegalArgumentException if lexicon is null
+    */
+   public BoardWalker(Lexicon lexicon) {
+      if (lexicon == null) {
+         throw new IllegalArgumentException();
+      }
+      this.lexicon = lexicon;
+   }
+
+   /**
+    * Sets the board to search.
+    *
+    * @param letterArray the N^2 tiles of the board in row-major order
+    * @throws IllegalArgumentException if letterArray is null, or is not
+    *     square.
+    */
+   public void setBoard(String[] letterArray) {
+      if (letterArray == null || Math.sqrt(letterArray.length) % 1 != 0) {
+         throw new IllegalArgumentException();
+      }
+      setBoard(letterArray, BoardShape.square((int) Math.sqrt(letterArray.length)));
+   }
+
+   /**
+    * Sets a board of any shape to search.
+    *
+    * @param letterArray the tiles of the board in row-major order
+    * @param shape the layout of the board
+    * @throws IllegalArgumentException if letterArray or shape is null, or
+    *     if letterArray does not have one tile per cell of shape
+    */
+   public void setBoard(String[] letterArray, BoardShape shape) {
+      if (letterArray == null || shape == null || letterArray.length != shape.cells()) {
+         throw new IllegalArgumentException();
+      }
+      if (adjacency == null || !adjacency.shape().equals(shape)) {
+         adjacency = Adjacency.of(shape);
+         visited = new boolean[shape.cells()];
+         trail = new int[shape.cells()];
+      }
+      tiles = new char[letterArray.length][];
+      int length = 0;
+      for (int i = 0; i < letterArray.length; i++) {
+         tiles[i] = letterArray[i].toUpperCase(Locale.ROOT).toCharArray();
+         length += tiles[i].length;
+      }
+      if (buffer == null || buffer.length < length) {
+         buffer = new char[length];
+      }
+   }
+
+   /**
+    * Returns the number of cells on the board.
+    */
+   public int cells() {
+      return tiles.length;
+   }
+
+   /**
+    * Returns the neighbor table for the board.
+    */
+   public Adjacency adjacency() {
+      return adjacency;
+   }
+
+   /**
+    * Returns a walker on the same board with its own traversal state, so
+    * another thread can search part of the board at the same time.
+    */
+   public BoardWalker fork() {
+      BoardWalker copy = new BoardWalker(lexicon);
+      copy.tiles = tiles;
+      copy.adjacency = adjacency;
+      copy.visited = new boolean[visited.length];
+      copy.buffer = new char[buffer.length];
+      copy.trail = new int[trail.length];
+      return copy;
+   }
+
+   /**
+    * Adds every word of at least min characters found on the board to out.
+    *
+    * @param min the minimum number of characters per word
+    * @param out the collector that receives the words
+    */
+   public void solve(int min, Collection<String> out) {
+      solve(min, collect(out));
+   }
+
+   /**
+    * Passes every word of at least min characters to sink as soon as it is
+    * found. A word reachable by more than one path is passed once per path.
+    * The search stops as soon as sink returns false.
+    *
+    * @param min the minimum number of characters per word
+    * @param sink receives the words; returns false to stop the search
+    * @return true if the whole board was searched, false if sink stopped it
+    */
+   public boolean solve(int min, Predicate<String> sink) {
+      return solve(min, (letters, length, path, cells) ->
+         sink.test(new String(letters, 0, length)));
+   }
+
+   /**
+    * Passes every word of at least min characters, with the path that
+    * spells it, to sink as soon as it is found. A word reachable by more
+    * than one path is passed once per path. The search stops as soon as
+    * sink returns false.
+    *
+    * @param min the minimum number of characters per word
+    * @param sink receives the words and paths; returns false to stop
+    * @return true if the whole board was searched, false if sink stopped it
+    */
+   public boolean solve(int min, WordSink sink) {
+      begin(min, sink, null);
+      try {
+         for (int cell = 0; cell < tiles.length && !stopped; cell++) {
+            step(cell, Lexicon.ROOT, 0, 0);
+         }
+         return !stopped;
+      }
+      finally {
+         end();
+      }
+   }
+
+   /**
+    * Passes the lexicon node of every word of at least min characters to
+    * sink as soon as it is found. A word reachable by more than one path
+    * is passed once per path. The search stops as soon as sink returns
+    * false.
+    *
+    * @param min the minimum number of characters per word
+    * @param sink receives the nodes; returns false to stop
+    * @return true if the whole board was searched, false if sink stopped it
+    */
+   public boolean solveNodes(int min, NodeSink sink) {
+      begin(min, null, sink);
+      try {
+         for (int cell = 0; cell < tiles.length && !stopped; cell++) {
+            step(cell, Lexicon.ROOT, 0, 0);
+         }
+         return !stopped;
+      }
+      finally {
+         end();
+      }
+   }
+
+   // readies a search that reports to exactly one of the two sinks
+   private void begin(int min, WordSink words, NodeSink wordNodes) {
+      this.min = min;
+      found = words;
+      nodes = wordNodes;
+      stopped = false;
+   }
+
+   // forgets the sinks, and unmarks any cells a sink that threw left marked,
+   // so nothing from this search reaches the next one
+   private void end() {
+      found = null;
+      nodes = null;
+      Arrays.fill(visited, false);
+   }
+
+   private static WordSink collect(Collection<String> out) {
+      return (letters, length, path, cells) -> {
+         out.add(new String(letters, 0, length));
+         return true;
+      };
+   }
+
+   /**
+    * Adds every word of at least min characters whose path starts at cell.
+    *
+    * @param cell the row-major position the paths start from
+    * @param min the minimum number of characters per word
+    * @param out the collector that receives the words
+    */
+   public void solveFrom(int cell, int min, Collection<String> out) {
+      begin(min, collect(out), null);
+      try {
+         step(cell, Lexicon.ROOT, 0, 0);
+      }
+      finally {
+         end();
+      }
+   }
+
+   /**
+    * Adds every word of at least min characters whose path starts with the
+    * first length cells of path. Words along the way are only reported
+    * for the last of those cells, so disjoint prefixes can be searched
+    * separately without reporting a word twice.
+    *
+    * @param path adjacent row-major positions, none repeated
+    * @param length the number of positions of path to use
+    * @param min the minimum number of characters per word
+    * @param out the collector that receives the words
+    */
+   public void solvePath(int[] path, int length, int min, Collection<String> out) {
+      begin(min, collect(out), null);
+      try {
+         int node = Lexicon.ROOT;
+         int letters = 0;
+         for (int i = 0; i < length - 1 && node != Lexicon.NONE; i++) {
+            node = enter(path[i], node, letters);
+            letters += tiles[path[i]].length;
+            visited[path[i]] = true;
+            trail[i] = path[i];
+         }
+         if (node != Lexicon.NONE) {
+            step(path[length - 1], node, letters, length - 1);
+         }
+      }
+      finally {
+         end();
+      }
+   }
+
+   /**
+    * Returns the word spelled by the first length cells of path, without
+    * searching any further.
+    *
+    * @param path adjacent row-major positions, none repeated
+    * @param length the number of positions of path to use
+    * @param min the minimum number of characters per word
+    * @return the word, or null if the path does not spell a word of at
+    *     least min characters
+    */
+   public String wordAt(int[] path, int length, int min) {
+      int node = Lexicon.ROOT;
+      int letters = 0;
+      for (int i = 0; i < length && node != Lexicon.NONE; i++) {
+         node = enter(path[i], node, letters);
+         letters += tiles[path[i]].length;
+      }
+      if (node == Lexicon.NONE || letters < min || !lexicon.isWord(node)) {
+         return null;
+      }
+      return new String(buffer, 0, letters);
+   }
+
+   /**
+    * Finds a path of tiles that spells word, ignoring case. Starting cells
+    * are tried in row-major order and neighbors in row-major order, so the
+    * path found is the same one isOnBoard has always returned.
+    *
+    * @param word the word to look for
+    * @param path receives the row-major positions of the path; it must be
+    *     at least as long as word or as the board, whichever is shorter
+    * @return the number of positions written to path, or -1 if word is
+    *     not on the board
+    */
+   public int findPath(CharSequence word, int[] path) {
+      if (word.length() == 0) {
+         return -1;
+      }
+      for (int cell = 0; cell < tiles.length; cell++) {
+         int length = follow(cell, word, 0, 0, path);
+         if (length > 0) {
+            for (int i = 0; i < length; i++) {
+               visited[path[i]] = false;
+            }
+            return length;
+         }
+      }
+      return -1;
+   }
+
+   // tries to match word from offset onward starting with the tile at cell,
+   // which would be position depth of path; returns the path length or -1
+   private int follow(int cell, CharSequence word, int offset, int depth, int[] path) {
+      char[] tile = tiles[cell];
+      if (tile.length == 0 || offset + tile.length > word.length()) {
+         return -1;
+      }
+      for (int i = 0; i < tile.length; i++) {
+         if (Character.toUpperCase(word.charAt(offset + i)) != tile[i]) {
+            return -1;
+         }
+      }
+      int end = offset + tile.length;
+      path[depth] = cell;
+      if (end == word.length()) {
+         return depth + 1;
+      }
+      visited[cell] = true;
+      for (int k = adjacency.start(cell); k < adjacency.end(cell); k++) {
+         int next = adjacency.get(k);
+         if (!visited[next]) {
+            int length = follow(next, word, end, depth + 1, path);
+            if (length > 0) {
+               return length;
+            }
+         }
+      }
+      //backtrack
+      visited[cell] = false;
+      return -1;
+   }
+
+   // copies the tile at cell into the buffer and follows it from node
+   private int enter(int cell, int node, int length) {
+      char[] tile = tiles[cell];
+      for (int i = 0; i < tile.length && node != Lexicon.NONE; i++) {
+         node = lexicon.child(node, tile[i]);
+         buffer[length + i] = tile[i];
+      }
+      return node;
+   }
+
+   // adds the tile at cell to a path of depth cells and length letters ending at node
+   private void step(int cell, int node, int length, int depth) {
+      node = enter(cell, node, length);
+      if (node == Lexicon.NONE) {
+         return;
+      }
+      length += tiles[cell].length;
+      trail[depth] = cell;
+      if (length >= min && lexicon.isWord(node)
+            && !(nodes != null ? nodes.found(node, length)
+               : found.found(buffer, length, trail, depth + 1))) {
+         stopped = true;
+         return;
+      }
+      visited[cell] = true;
+      for (int k = adjacency.start(cell); k < adjacency.end(cell) && !stopped; k++) {
+         int next = adjacency.get(k);
+         if (!visited[next]) {
+            step(next, node, length, depth + 1);
+         }
+      }
+      //backtrack
+      visited[cell] = false;
+   }
+}
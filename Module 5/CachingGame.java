@@ -0,0 +1,176 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * A WordSearchGame that answers getAllScorableWords from a SolutionCache
+ * before asking the game it wraps to search the board.
+ *
+ * Cache entries are tagged with the file name given to loadLexicon
+ * together with the file's modification time and length when it was
+ * loaded, so games that share a cache and a word list share solved
+ * boards, and a word list edited in place is not answered from entries
+ * solved against its old contents. Entries are also tagged with the
+ * wrapped game's class. Boards that differ only in the case of their
+ * tiles share an entry, so the words are always returned upper-cased.
+ * Every other method is passed straight to the wrapped game.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class CachingGame implements WordSearchGame {
+   private final WordSearchGame game;
+   private final SolutionCache cache;
+   private String lexicon;
+   private String[] letters;
+
+   /**
+    * Wraps game with cache.
+    *
+    * @param game the game that solves boards the cache has not seen
+    * @param cache the cache of solved boards, which may be shared
+    * @throws IllegalArgumentException if game or cache is null
+    */
+   public CachingGame(WordSearchGame game, SolutionCache cache) {
+      if (game == null || cache == null) {
+         throw new IllegalArgumentException();
+      }
+      this.game = game;
+      this.cache = cache;
+   }
+
+   /**
+    * Loads the lexicon into the wrapped game and tags later cache entries
+    * with the file's name, modification time and length.
+    *
+    * @param fileName A string containing the name of the file to be opened.
+    * @throws IllegalArgumentException if fileName is null
+    * @throws IllegalArgumentException if fileName cannot be opened.
+    */
+   public void loadLexicon(String fileName) {
+      game.loadLexicon(fileName);
+      File file = new File(fileName);
+      lexicon = fileName + '@' + file.lastModified() + '/' + file.length();
+   }
+
+   /**
+    * Sets the wrapped game's board and remembers it for the cache.
+    *
+    * @param letterArray The array of letters, row by row.
+    * @throws IllegalArgumentException if letterArray is null, or is not
+    *     square.
+    */
+   public void setBoard(String[] letterArray) {
+      game.setBoard(letterArray);
+      letters = letterArray.clone();
+   }
+
+   /**
+    * Returns the wrapped game's board.
+    *
+    * @return the board as the wrapped game renders it
+    */
+   public String getBoard() {
+      return game.getBoard();
+   }
+
+   /**
+    * Writes the wrapped game's board to out.
+    *
+    * @param out where the board is written
+    * @throws IOException if out cannot be written to
+    */
+   public void appendBoard(Appendable out) throws IOException {
+      game.appendBoard(out);
+   }
+
+   /**
+    * Retrieves all scorable words on the game board, upper-cased, from the
+    * cache when this board, or a rotation or reflection of it, has been
+    * solved before.
+    *
+    * @param minimumWordLength The minimum allowed length (i.e., number of
+    *     characters) for any word found on the board.
+    * @return java.util.SortedSet which contains all the words of minimum length
+    *     found on the game board and in the lexicon.
+    * @throws IllegalArgumentException if minimumWordLength < 1
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public SortedSet<String> getAllScorableWords(int minimumWordLength) {
+      if (minimumWordLength < 1) {
+         throw new IllegalArgumentException();
+      }
+      if (lexicon == null) {
+         throw new IllegalStateException();
+      }
+      if (letters == null) {
+         // the wrapped game's default board is not known here
+         return upperCase(game.getAllScorableWords(minimumWordLength));
+      }
+      return new TreeSet<String>(cache.get(game.getClass(), lexicon, letters,
+         minimumWordLength, () -> upperCase(game.getAllScorableWords(minimumWordLength))));
+   }
+
+   // words upper-cased, as the cache returns them whatever the tiles' case
+   private static SortedSet<String> upperCase(SortedSet<String> words) {
+      SortedSet<String> upper = new TreeSet<String>();
+      for (String word : words) {
+         upper.add(word.toUpperCase(Locale.ROOT));
+      }
+      return upper;
+   }
+
+   /**
+    * Scores words with the wrapped game; scores are not cached.
+    *
+    * @param words The set of words that are to be scored.
+    * @param minimumWordLength The minimum number of characters required per
+    *     word
+    * @return the cumulative score of all the words in the set
+    * @throws IllegalArgumentException if minimumWordLength < 1
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public int getScoreForWords(SortedSet<String> words, int minimumWordLength) {
+      return game.getScoreForWords(words, minimumWordLength);
+   }
+
+   /**
+    * Checks wordToCheck against the wrapped game's lexicon.
+    *
+    * @param wordToCheck The word to validate
+    * @return true if wordToCheck appears in lexicon, false otherwise.
+    * @throws IllegalArgumentException if wordToCheck is null.
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public boolean isValidWord(String wordToCheck) {
+      return game.isValidWord(wordToCheck);
+   }
+
+   /**
+    * Checks prefixToCheck against the wrapped game's lexicon.
+    *
+    * @param prefixToCheck The prefix to validate
+    * @return true if prefixToCheck appears in lexicon, false otherwise.
+    * @throws IllegalArgumentException if prefixToCheck is null.
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public boolean isValidPrefix(String prefixToCheck) {
+      return game.isValidPrefix(prefixToCheck);
+   }
+
+   /**
+    * Finds wordToCheck on the wrapped game's board; paths are not cached.
+    *
+    * @param wordToCheck The word to check.
+    * @return a List containing the row-major indices of the cells that
+    *     spell wordToCheck, or an empty list if it is not on the board.
+    * @throws IllegalArgumentException if wordToCheck is null.
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public List<Integer> isOnBoard(String wordToCheck) {
+      return game.isOnBoard(wordToCheck);
+   }
+}
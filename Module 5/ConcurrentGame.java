@@ -0,0 +1,221 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * A word search game that one instance can serve to many threads at once.
+ *
+ * The lexicon and board are held together in an immutable snapshot that
+ * loadLexicon and setBoard replace as a whole. Every query reads the
+ * snapshot once and does its traversal on its own fork of the snapshot's
+ * BoardWalker, so queries never share mutable state, never block each
+ * other and always see a lexicon and board that were set together. Reads
+ * take no locks, which also suits virtual threads.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class ConcurrentGame implements WordSearchGame {
+   private volatile Snapshot current;
+
+   /**
+    * Creates a default board.
+    */
+   public ConcurrentGame() {
+      current = new Snapshot(null, new String[] {
+         "E", "E", "C", "A",
+         "A", "L", "E", "P",
+         "H", "N", "B", "O",
+         "Q", "T", "T", "Y"
+         });
+   }
+
+   /**
+    * Loads the lexicon into a Trie, or maps it if it was written by
+    * LexiconCompiler. Queries already running finish against the old
+    * lexicon.
+    *
+    * @param fileName A string containing the name of the file to be opened.
+    * @throws IllegalArgumentException if fileName is null
+    * @throws IllegalArgumentException if fileName cannot be opened.
+    */
+   public void loadLexicon(String fileName) {
+      Lexicon lexicon = MappedLexicon.isCompiled(fileName)
+         ? MappedLexicon.open(fileName) : Trie.load(fileName);
+      synchronized (this) {
+         current = new Snapshot(lexicon, current.tiles);
+      }
+   }
+
+   /**
+    * Stores the incoming array of Strings in row-major order. Queries
+    * already running finish against the old board.
+    *
+    * @param letterArray This array of length N^2 stores the contents of the
+    *     game board in row-major order.
+    * @throws IllegalArgumentException if letterArray is null, or is  not
+    *     square.
+    */
+   public void setBoard(String[] letterArray) {
+      if (letterArray == null || Math.sqrt(letterArray.length) % 1 != 0) {
+         throw new IllegalArgumentException();
+      }
+      String[] tiles = letterArray.clone();
+      synchronized (this) {
+         current = new Snapshot(current.lexicon, tiles);
+      }
+   }
+
+   /**
+    * Creates a String representation of the board, suitable for printing to
+    *   standard out.
+    */
+   public String getBoard() {
+      String[] tiles = current.tiles;
+      return BoardText.render(tiles, (int) Math.sqrt(tiles.length));
+   }
+
+   /**
+    * Writes the board to out without building it as one String first.
+    *
+    * @param out where the board is written
+    * @throws IOException if out cannot be written
+    */
+   public void appendBoard(Appendable out) throws IOException {
+      String[] tiles = current.tiles;
+      BoardText.append(out, tiles, (int) Math.sqrt(tiles.length));
+   }
+
+   /**
+    * Retrieves all scorable words on the game board.
+    *
+    * @param minimumWordLength The minimum allowed length (i.e., number of
+    *     characters) for any word found on the board.
+    * @return java.util.SortedSet which contains all the words of minimum length
+    *     found on the game board and in the lexicon.
+    * @throws IllegalArgumentException if minimumWordLength < 1
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public SortedSet<String> getAllScorableWords(int minimumWordLength) {
+      if (minimumWordLength < 1) {
+         throw new IllegalArgumentException();
+      }
+      Snapshot snapshot = loaded();
+      SortedSet<String> found = new TreeSet<String>();
+      snapshot.walker.fork().solve(minimumWordLength, found);
+      return found;
+   }
+
+   /**
+    * Computes the cummulative score for the scorable words in the given set.
+    *
+    * @param words The set of words that are to be scored.
+    * @param minimumWordLength The minimum number of characters required per word
+    * @return the cummulative score of all scorable words in the set
+    * @throws IllegalArgumentException if minimumWordLength < 1
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public int getScoreForWords(SortedSet<String> words, int minimumWordLength) {
+      if (minimumWordLength < 1) {
+         throw new IllegalArgumentException();
+      }
+      Snapshot snapshot = loaded();
+      BoardWalker walker = snapshot.walker.fork();
+      int[] path = new int[snapshot.tiles.length];
+      int score = 0;
+      for (String word : words) {
+         if (word.length() >= minimumWordLength && snapshot.lexicon.contains(word)
+               && walker.findPath(word, path) > 0) {
+            score += (word.length() - (minimumWordLength - 1));
+         }
+      }
+      return score;
+   }
+
+   /**
+    * Determines if the given word is in the lexicon.
+    *
+    * @param wordToCheck The word to validate
+    * @return true if wordToCheck appears in lexicon, false otherwise.
+    * @throws IllegalArgumentException if wordToCheck is null.
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public boolean isValidWord(String wordToCheck) {
+      if (wordToCheck == null) {
+         throw new IllegalArgumentException();
+      }
+      return loaded().lexicon.contains(wordToCheck);
+   }
+
+   /**
+    * Determines if there is at least one word in the lexicon with the
+    * given prefix.
+    *
+    * @param prefixToCheck The prefix to validate
+    * @return true if prefixToCheck appears in lexicon, false otherwise.
+    * @throws IllegalArgumentException if prefixToCheck is null.
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public boolean isValidPrefix(String prefixToCheck) {
+      if (prefixToCheck == null) {
+         throw new IllegalArgumentException();
+      }
+      return loaded().lexicon.hasPrefix(prefixToCheck);
+   }
+
+   /**
+    * Determines if the given word is in on the game board. If so, it returns
+    * the path that makes up the word.
+    *
+    * @param wordToCheck The word to validate
+    * @return java.util.List containing java.lang.Integer objects with  the path
+    *     that makes up the word on the game board, in row-major positions.
+    *     If word is not on the game board, return an empty list.
+    * @throws IllegalArgumentException if wordToCheck is null.
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public List<Integer> isOnBoard(String wordToCheck) {
+      if (wordToCheck == null) {
+         throw new IllegalArgumentException();
+      }
+      Snapshot snapshot = loaded();
+      int[] path = new int[snapshot.tiles.length];
+      int length = snapshot.walker.fork().findPath(wordToCheck, path);
+      List<Integer> list = new ArrayList<Integer>();
+      for (int i = 0; i < length; i++) {
+         list.add(path[i]);
+      }
+      return list;
+   }
+
+   // the current snapshot, which must have a lexicon
+   private Snapshot loaded() {
+      Snapshot snapshot = current;
+      if (snapshot.lexicon == null) {
+         throw new IllegalStateException();
+      }
+      return snapshot;
+   }
+
+   // a lexicon and board that are never changed once built
+   private static final class Snapshot {
+      private final Lexicon lexicon;
+      private final String[] tiles;
+      // prepared for this board and only ever forked, never searched
+      private final BoardWalker walker;
+
+      Snapshot(Lexicon lexicon, String[] tiles) {
+         this.lexicon = lexicon;
+         this.tiles = tiles;
+         if (lexicon == null) {
+            walker = null;
+         }
+         else {
+            walker = new BoardWalker(lexicon);
+            walker.setBoard(tiles);
+         }
+      }
+   }
+}
@@ -1,5 +1,12 @@
 import java.util.List;
+import java.util.Locale;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.Scanner;
@@ -7,7 +14,7 @@ import java.io.File;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.io.FileNotFoundException;
-import java.util.Arrays; 
+import java.io.IOException;
 /**
  * Creat a word search game in 2 dimensions,
  * based on WordSearGame.
@@ -16,7 +23,43 @@ import java.util.Arrays;
  */
 public class Game implements WordSearchGame {
    private String[][] board;
-   private TreeSet<String> lexicon;
+   private PackedLexicon lexicon;
+   private SolveMode solveMode = SolveMode.GRID;
+   //built from lexicon the first time the walker is used
+   private BoardWalker walker;
+   private ParallelSolver parallelSolver;
+   //built from lexicon the first time a hint is asked for
+   private AnagramIndex anagrams;
+   //the cells holding each tile, built whenever the board is set
+   private Map<String, List<Integer>> tileIndex;
+   //the distinct tile lengths on the board, shortest first
+   private List<Integer> tileLengths;
+   //the board with every tile upper-cased, as the searches read it
+   private String[][] upperBoard;
+   //upperBoard with every tile spelled backwards
+   private String[][] reversedBoard;
+   //the text getBoard last returned, or null once the board changes
+   private String boardText;
+   //the last getAllScorableWords result for this board, or null
+   private Set<String> solved;
+   private int solvedMinimum;
+   //how getScoreForWords decided each word
+   private long cachedLookups;
+   private long freshSearches;
+   //what the GRID searches have done, counted only when metrics are on
+   private final SearchMetrics.Counters counters = new SearchMetrics.Counters();
+   
+   /**
+    *The ways getAllScorableWords can search the board.
+    */
+   public enum SolveMode {
+      /** The recursive Grid search over the packed lexicon. */
+      GRID,
+      /** The allocation-free BoardWalker over a Trie of the lexicon. */
+      WALKER,
+      /** The BoardWalker search split across a ForkJoinPool. */
+      PARALLEL
+   }
    
    /**
     *Creates a default board.
@@ -29,11 +72,12 @@ public class Game implements WordSearchGame {
          {"Q", "T", "T", "Y"}
          };
       board = defaultBoard;
+      indexBoard();
    }
  /**
   *Loads in a lexicon from the given file.
   *The first word of each line in the text file is added to the lexicon,
-  *which is represented by a TreeSet of Strings.
+  *which is packed into a PackedLexicon of upper-cased words.
   *
   *@param fileName The name of the file to be used as a lexicon.
   *@throws IllegalArgumentException if fileName is null.
@@ -43,11 +87,14 @@ public class Game implements WordSearchGame {
       if (fileName == null) {
          throw new IllegalArgumentException();
       }
-      lexicon = new TreeSet<String>();
+      List<String> words = new ArrayList<String>();
+      walker = null;
+      anagrams = null;
+      solved = null;
       try {
          Scanner fileScanner = new Scanner(new File(fileName));
          while (fileScanner.hasNext()) {
-            lexicon.add(fileScanner.next().toUpperCase());
+            words.add(fileScanner.next());
             if (fileScanner.hasNextLine()) {
                fileScanner.nextLine();
             }
@@ -60,6 +107,7 @@ public class Game implements WordSearchGame {
       {
          throw new IllegalArgumentException();
       }
+      lexicon = PackedLexicon.of(words);
    }
    
    /** 
@@ -93,6 +141,44 @@ public class Game implements WordSearchGame {
             count++;
          }
       }
+      boardText = null;
+      solved = null;
+      indexBoard();
+   }
+   
+   //maps each tile to the cells that hold it, in row-major order
+   private void indexBoard() {
+      tileIndex = new HashMap<String, List<Integer>>();
+      tileLengths = new ArrayList<Integer>();
+      upperBoard = new String[board.length][board.length];
+      reversedBoard = new String[board.length][board.length];
+      for (int row = 0; row < board.length; row++) {
+         for (int col = 0; col < board[row].length; col++) {
+            String tile = board[row][col].toUpperCase(Locale.ROOT);
+            upperBoard[row][col] = tile;
+            tileIndex.computeIfAbsent(tile, k -> new ArrayList<Integer>())
+               .add(row * board.length + col);
+            if (!tileLengths.contains(tile.length())) {
+               tileLengths.add(tile.length());
+            }
+            reversedBoard[row][col] = new StringBuilder(tile).reverse().toString();
+         }
+      }
+      Collections.sort(tileLengths);
+   }
+   
+   /**
+    *Selects how getAllScorableWords searches the board.
+    *Every mode returns the same words, upper-cased.
+    *
+    *@param mode the search to use
+    *@throws IllegalArgumentException if mode is null.
+    */
+   public void setSolveMode(SolveMode mode) {
+      if (mode == null) {
+         throw new IllegalArgumentException();
+      }
+      solveMode = mode;
    }
    
   /**
@@ -100,17 +186,24 @@ public class Game implements WordSearchGame {
    * @return String
    */ 
    public String getBoard() {
-      String boardOut = "";
-      for (String[] row: board) {
-         boardOut += "[";
-         for (String value: row) {
-            boardOut += (value + ", ");
-         }
-         boardOut = boardOut.substring(0, boardOut.length() - 2);
-         boardOut += "]\n";
+      if (boardText == null) {
+         boardText = BoardText.render(board);
+      }
+      return boardText;
+   }
+
+  /**
+   * Writes the board to out, streaming it unless it is already rendered.
+   * @param out where the board is written
+   * @throws IOException if out cannot be written
+   */
+   public void appendBoard(Appendable out) throws IOException {
+      if (boardText != null) {
+         out.append(boardText);
+      }
+      else {
+         BoardText.append(out, board);
       }
-      
-      return boardOut;
    }
    
    
@@ -134,17 +227,33 @@ public class Game implements WordSearchGame {
       if (lexicon == null) {
          throw new IllegalStateException();
       }
+      
+      SortedSet<String> found = solveMode == SolveMode.GRID
+         ? searchAllPossibleWords(minimumWordLength)
+         : walkAllPossibleWords(minimumWordLength);
+      solved = new HashSet<String>(found);
+      solvedMinimum = minimumWordLength;
+      return found;
+   }
    
+   //solves the board with the recursive Grid search
+   private SortedSet<String> searchAllPossibleWords(int minimumWordLength) {
       if (board.length == 1 && board[0].length == 1){
          SortedSet<String> returnSet = new TreeSet<String>();
-         if (board[0][0].length() >= minimumWordLength && isValidWord(board[0][0])){
-            returnSet.add(board[0][0]);
+         if (upperBoard[0][0].length() >= minimumWordLength
+               && isValidWord(upperBoard[0][0])){
+            returnSet.add(upperBoard[0][0]);
          }
          return returnSet;
          
       }
+      long start = SearchMetrics.ENABLED ? System.nanoTime() : 0L;
       TreeSet<String> word = new TreeSet<String>();
-      Grid walker = new Grid(board);
+      Grid walker = new Grid(upperBoard);
+      long searchStart = SearchMetrics.ENABLED ? System.nanoTime() : 0L;
+      if (SearchMetrics.ENABLED) {
+         counters.prepare(searchStart - start);
+      }
       
       for (int row = 0; row < board.length; row++) {
          for (int col = 0; col < board[row].length; col++) {
@@ -152,9 +261,51 @@ public class Game implements WordSearchGame {
                walker.searchAllPossibleWords(row, col, minimumWordLength));
          }
       }
+      if (SearchMetrics.ENABLED) {
+         counters.search(System.nanoTime() - searchStart);
+      }
       return word;
    }
    
+   /**
+    *Returns what the GRID searches of getAllScorableWords and isOnBoard
+    *have done since this game was made or last reset. Everything is zero
+    *unless the JVM was started with -Dwordsearch.metrics=true.
+    *
+    *@return a snapshot of the search counters
+    */
+   public SearchMetrics getSearchMetrics() {
+      return counters.snapshot();
+   }
+   
+   /**
+    *Sets the search counters back to zero.
+    */
+   public void resetSearchMetrics() {
+      counters.reset();
+   }
+   
+   //solves the board with a BoardWalker, building it on first use
+   private SortedSet<String> walkAllPossibleWords(int minimumWordLength) {
+      if (walker == null) {
+         walker = new BoardWalker(Trie.of(lexicon));
+      }
+      String[] letterArray = new String[board.length * board.length];
+      for (int row = 0; row < board.length; row++) {
+         System.arraycopy(board[row], 0, letterArray, row * board.length, board.length);
+      }
+      walker.setBoard(letterArray);
+      if (solveMode == SolveMode.PARALLEL) {
+         if (parallelSolver == null) {
+            parallelSolver = new ParallelSolver();
+         }
+         return parallelSolver.solve(walker, minimumWordLength);
+      }
+      SortedSet<String> words = new TreeSet<String>();
+      walker.solve(minimumWordLength, words);
+      return words;
+   }
+   
  /**
   * Calculates the total amount of score for a given set of words.
   * the score of a word is calculated as follows:
@@ -166,6 +317,10 @@ public class Game implements WordSearchGame {
   *   (2) The word is in the currently loaded dictionary
   *   (3) the word is on the board.
   * 
+  * If getAllScorableWords has already been called for this board with a
+  * minimum no larger than minimumWordLength, the words are checked
+  * against that result instead of searching the board for each one.
+  * 
   * @param words the set of words to be scored.
   * @param minimumWordLength the minumum amount
   *   of characters for a word to be scorable
@@ -183,17 +338,45 @@ public class Game implements WordSearchGame {
       }
    
       int score = 0;
+      if (solved != null && solvedMinimum <= minimumWordLength) {
+         for (String word : words) {
+            cachedLookups++;
+            if (word.length() >= minimumWordLength
+                  && solved.contains(word.toUpperCase(Locale.ROOT))) {
+               score += (word.length() - (minimumWordLength - 1));
+            }
+         }
+         return score;
+      }
       
       for (String word : words) {
-         if ((word.length() >= minimumWordLength
-            && isValidWord(word))
-               && isOnBoard(word).size() > 0) {
-            score += (word.length() - (minimumWordLength - 1));
+         if (word.length() >= minimumWordLength && isValidWord(word)) {
+            freshSearches++;
+            if (isOnBoard(word).size() > 0) {
+               score += (word.length() - (minimumWordLength - 1));
+            }
          }
       }
       return score;
    }
    
+   /**
+    *Returns how many words getScoreForWords has scored from a cached
+    *getAllScorableWords result.
+    */
+   public long getCachedLookups() {
+      return cachedLookups;
+   }
+   
+   /**
+    *Returns how many words getScoreForWords has searched the board for.
+    *Words too short or not in the lexicon are rejected without a search
+    *and are not counted.
+    */
+   public long getFreshSearches() {
+      return freshSearches;
+   }
+   
    /**
     *checks if the given word is in the curently loaded dictionary.
     *@param wordToCheck the word to validate within the lexicon
@@ -208,7 +391,7 @@ public class Game implements WordSearchGame {
       if (lexicon.size() == 0) {
          throw new IllegalStateException();
       }
-      return (lexicon.contains(wordToCheck.toUpperCase()));
+      return lexicon.contains(wordToCheck);
    }
   
   /**
@@ -228,21 +411,30 @@ public class Game implements WordSearchGame {
       if (lexicon.size() == 0) {
          throw new IllegalStateException();
       }
-   
-      String match  = lexicon.ceiling(prefixToCheck.toUpperCase());
-      try {
-      //A standard string method
-         if (match.regionMatches(true, 
-            0, prefixToCheck, 0, prefixToCheck.length())) {
-            return true;
-         }
-         return false;
-      } 
-      catch (NullPointerException e) {
-         return false;
-      } 
-      
+      return lexicon.hasPrefix(prefixToCheck);
    }
+   /**
+    *Finds the dictionary words that can be made from the letters of the
+    *given tiles, in any order, for hints. Letters are counted without
+    *regard to tiles, so a word may split a multi-letter tile.
+    *
+    *@param tiles the tiles to draw letters from
+    *@param minimumWordLength the fewest characters a word may have
+    *@return the words, upper-cased and sorted
+    *@throws IllegalArgumentException if tiles is null or holds null,
+    *    or if minimumWordLength < 1.
+    *@throws IllegalStateException if loadLexicon has not been called.
+    */
+   public SortedSet<String> wordsFromTiles(String[] tiles, int minimumWordLength) {
+      if (lexicon == null) {
+         throw new IllegalStateException();
+      }
+      if (anagrams == null) {
+         anagrams = AnagramIndex.of(lexicon);
+      }
+      return anagrams.wordsFrom(tiles, minimumWordLength);
+   }
+   
    /**
     * Determines if a particular word is on the board.
     * If it is, it returns a list with the locations
@@ -269,68 +461,162 @@ public class Game implements WordSearchGame {
          throw new IllegalStateException();
       }
     
-      Grid walker = new Grid(board);
-      for (int row = 0; row < board.length; row++) {
-         for (int col = 0; col < board[row].length; col++) {
-            if (wordToCheck.toUpperCase().startsWith(board[row][col])) {
-               if (walker.searchForWord(row, col, wordToCheck.toUpperCase())) {
-                  return walker.sendQueue();
-               }
+      long start = SearchMetrics.ENABLED ? System.nanoTime() : 0L;
+      String word = wordToCheck.toUpperCase(Locale.ROOT);
+      List<Integer> starts = anchors(word, false);
+      List<Integer> ends = anchors(word, true);
+      long searchStart = SearchMetrics.ENABLED ? System.nanoTime() : 0L;
+      if (SearchMetrics.ENABLED) {
+         counters.prepare(searchStart - start);
+      }
+      List<Integer> path = findPath(word, starts, ends);
+      if (SearchMetrics.ENABLED) {
+         counters.search(System.nanoTime() - searchStart);
+      }
+      return path;
+   }
+   
+   //searches from the cells at one end of word for the path that spells it
+   private List<Integer> findPath(String word, List<Integer> starts, List<Integer> ends) {
+      //anchor on whichever end of the word has fewer matching cells
+      if (ends.size() < starts.size()) {
+         Grid walker = new Grid(reversedBoard);
+         String reversed = new StringBuilder(word).reverse().toString();
+         for (int cell : ends) {
+            if (walker.searchForWord(cell / board.length, cell % board.length, reversed)) {
+               List<Integer> path = walker.sendQueue();
+               Collections.reverse(path);
+               return path;
             }
          }
+         return new ArrayList<Integer>();
+      }
+      
+      Grid walker = new Grid(upperBoard);
+      for (int cell : starts) {
+         if (walker.searchForWord(cell / board.length, cell % board.length, word)) {
+            return walker.sendQueue();
+         }
       }
       return new ArrayList<Integer>();
    }
+   
+   //the cells whose tile begins (or ends) word, in row-major order
+   private List<Integer> anchors(String word, boolean fromEnd) {
+      List<Integer> cells = new ArrayList<Integer>();
+      for (int length : tileLengths) {
+         if (length > word.length()) {
+            break;
+         }
+         String tile = fromEnd ? word.substring(word.length() - length)
+            : word.substring(0, length);
+         List<Integer> found = tileIndex.get(tile);
+         if (found != null) {
+            cells.addAll(found);
+         }
+      }
+      Collections.sort(cells);
+      return cells;
+   }
   
   
    class Grid {
    
       private String [][] gridBoard;
-      private boolean[][] visited;
       private int numRows;
       private int numCols;
-      private Position location;
-      private static final int MAX_NEIGHBORS = 8;
+      private Adjacency adjacency;
+      //characters on the whole board, the most any path can spell
+      private int boardChars;
+      //the cells on the current path, one bit per cell; boards of up to
+      //64 cells need only the first word
+      private long[] visited;
       private String wordFormed = "";
       private Deque<Position> queue = new ArrayDeque<>();
+      //cells on the current path, kept only when metrics are on
+      private int depth;
       
    
       Grid(String[][] gridIn) {
          gridBoard = gridIn;
          numRows = gridBoard.length;
          numCols = gridBoard[0].length;
-         visited = new boolean[numRows][numCols];
+         adjacency = Adjacency.of(numRows);
+         visited = new long[(numRows * numCols + 63) >>> 6];
+         for (String[] tiles : gridBoard) {
+            for (String tile : tiles) {
+               boardChars += tile.length();
+            }
+         }
+      }
+      
+      //whether cell is on the current path
+      private boolean isVisited(int cell) {
+         return (visited[cell >>> 6] & (1L << cell)) != 0;
+      }
+      
+      private void visit(int cell) {
+         visited[cell >>> 6] |= 1L << cell;
+      }
+      
+      private void leave(int cell) {
+         visited[cell >>> 6] &= ~(1L << cell);
       }
       
       public boolean searchForWord(int row, int col, String wordSearched) {
-         location = new Position(row, col);
-         String wordRemaining = wordSearched;
-         visit(location);
-         wordRemaining = wordRemaining.substring(
-            gridBoard[location.getX()][location.getY()].length());
-         queue.addLast(location);
-        
-        
-         if (wordRemaining == "") {
-            visited = new boolean[numRows][numCols];
+         depth = 0;
+         //a match returns without backtracking, so start from a clear board
+         Arrays.fill(visited, 0L);
+         return searchFrom(row, col, wordSearched);
+      }
+      
+      private boolean searchFrom(int row, int col, String wordSearched) {
+         int cell = row * numCols + col;
+         visit(cell);
+         String wordRemaining = wordSearched.substring(gridBoard[row][col].length());
+         queue.addLast(new Position(row, col));
+         if (SearchMetrics.ENABLED) {
+            counters.node(++depth);
+         }
+         
+         if (wordRemaining.isEmpty()) {
+            if (SearchMetrics.ENABLED) {
+               counters.word();
+            }
             return true;
          }
          
          //searches through the maze
-         for (Position neighbor:location.neighbors()) {
-            if (wordRemaining.startsWith(gridBoard[neighbor.getX()][neighbor.getY()])
-               && !isVisited(neighbor)) {
-               boolean wordFound = searchForWord(neighbor.getX(),
-                  neighbor.getY(), wordRemaining);
-               if (wordFound) {
-                  visited = new boolean[numRows][numCols];
-                  return true;
-               }
-               
+         for (int k = adjacency.start(cell); k < adjacency.end(cell); k++) {
+            int next = adjacency.get(k);
+            if (!isVisited(next)
+               && counted(wordRemaining.startsWith(gridBoard[next / numCols][next % numCols]))
+               && searchFrom(next / numCols, next % numCols, wordRemaining)) {
+               return true;
             }
          }
          queue.removeLast();
-         visited[row][col] = false;
+         leave(cell);
+         if (SearchMetrics.ENABLED) {
+            depth--;
+         }
+         return false;
+      }
+      
+      //passes a prefix check through, counting it when metrics are on
+      private boolean counted(boolean hit) {
+         return SearchMetrics.ENABLED ? counters.prefix(hit) : hit;
+      }
+      
+      //PackedLexicon.canGrow for the path spelling prefix; a cut is
+      //counted with the words below it when metrics are on
+      private boolean canGrow(String prefix, int longest, int minLength) {
+         if (PackedLexicon.canGrow(prefix.length(), longest, boardChars, minLength)) {
+            return true;
+         }
+         if (SearchMetrics.ENABLED) {
+            counters.cut(lexicon.countWithPrefix(prefix));
+         }
          return false;
       }
       
@@ -342,51 +628,62 @@ public class Game implements WordSearchGame {
          }
          return list;
       }
+      
       public SortedSet<String> searchAllPossibleWords(
          int row, int col, int minLength) {
-         visited[row][col] = true;
-         wordFormed += (gridBoard[row][col]);
          SortedSet<String> wordsFound = new TreeSet<String>();
-         location = new Position(row, col);
          if (gridBoard[row][col].length() >= minLength
                && isValidWord(gridBoard[row][col])){
             wordsFound.add(gridBoard[row][col]);
+            if (SearchMetrics.ENABLED) {
+               counters.word();
+            }
+         }
+         String tile = gridBoard[row][col];
+         int longest = lexicon.longestWithPrefix(tile);
+         if (!counted(longest >= 0) || !canGrow(tile, longest, minLength)) {
+            return wordsFound;
+         }
+         searchAllFrom(row, col, minLength, wordsFound);
+         return wordsFound;
+      }
+      
+      private void searchAllFrom(int row, int col, int minLength,
+         SortedSet<String> wordsFound) {
+         int cell = row * numCols + col;
+         visit(cell);
+         wordFormed += (gridBoard[row][col]);
+         if (SearchMetrics.ENABLED) {
+            counters.node(++depth);
          }
         
-         for (Position neighbor : location.neighbors()) {
-            if ((isValidPrefix(
-               wordFormed + gridBoard[neighbor.getX()][neighbor.getY()]))
-                  && (!visited[neighbor.getX()][neighbor.getY()])) {
-               if ((isValidWord(
-                  wordFormed + gridBoard[neighbor.getX()][neighbor.getY()]))
-                     && (wordFormed + gridBoard[neighbor.getX()][neighbor.getY()])
-                        .length() >= minLength) {
-                  wordsFound.add(
-                     wordFormed + gridBoard[neighbor.getX()][neighbor.getY()]);
+         for (int k = adjacency.start(cell); k < adjacency.end(cell); k++) {
+            int next = adjacency.get(k);
+            if (!isVisited(next)) {
+               String nextWord = wordFormed + gridBoard[next / numCols][next % numCols];
+               //the prefix check, and the longest word it could lead to
+               int longest = lexicon.longestWithPrefix(nextWord);
+               if (counted(longest >= 0)) {
+                  if (nextWord.length() >= minLength && isValidWord(nextWord)) {
+                     wordsFound.add(nextWord);
+                     if (SearchMetrics.ENABLED) {
+                        counters.word();
+                     }
+                  }
+                  if (canGrow(nextWord, longest, minLength)) {
+                     searchAllFrom(next / numCols, next % numCols, minLength, wordsFound);
+                  }
                }
-               wordsFound.addAll(searchAllPossibleWords(neighbor.getX(),
-                   neighbor.getY(), minLength));
             }
          }
          
          //backtrack
-        
          wordFormed = wordFormed.substring(0, wordFormed.length()
             - (gridBoard[row][col].length()));
-         visited[row][col] = false;
-         return wordsFound;
-      } 
-      private boolean isValid(Position p) {
-         return (p.getX() >= 0) && (p.getX() < numRows)
-            && (p.getY() >= 0) && (p.getY() < numCols);
-      }
-         
-      private boolean isVisited(Position p) {
-         return visited [p.getX()][p.getY()];
-      }
-         
-      private void visit(Position p) {
-         visited [p.getX()][p.getY()] = true;
+         leave(cell);
+         if (SearchMetrics.ENABLED) {
+            depth--;
+         }
       }
          
       //Position class and its methods
@@ -407,25 +704,6 @@ public class Game implements WordSearchGame {
          public int getY() {
             return y;
          }
-      //Generate all possible neighboring positions
-         public Position[] neighbors() {
-            Position[] nbrs = new Position[MAX_NEIGHBORS];
-            int count = 0;
-            Position p;
-         
-            for (int i = -1; i <= 1; i++) {
-               for (int j = -1; j <= 1; j++) { 
-                  if (!((i == 0) && (j == 0))) {
-                     p = new Position(x + i, y + j);
-                     if (isValid(p)) {
-                        nbrs[count++] = p;
-                     }
-                  }
-               }
-            }
-            return Arrays.copyOf(nbrs, count);
-         }
-                  
          @Override
          public String toString() {
             return "(" + x + ", " + y + ")";
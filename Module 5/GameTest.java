@@ -3,10 +3,29 @@ import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
 import java.util.List;
+import java.util.Locale;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeSet; 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
 
 
 public class GameTest {
@@ -31,6 +50,106 @@ public class GameTest {
       Assert.assertEquals (expected, actual);    
    }
    
+   /**Tests that a compiled lexicon opens, and that one cut short or
+    padded out is rejected instead of being searched.**/
+   @Test public void mappedLexiconLengthTest() throws IOException {
+      File file = File.createTempFile("lexicon", ".bin");
+      file.deleteOnExit();
+      try (DataOutputStream out = new DataOutputStream(
+            new FileOutputStream(file))) {
+         Trie.of(Arrays.asList("CAT", "CATS", "DOG")).writeTo(out);
+      }
+      MappedLexicon lexicon = MappedLexicon.open(file.getPath());
+      Assert.assertEquals(3, lexicon.size());
+      Assert.assertTrue(lexicon.contains("CATS"));
+
+      long length = file.length();
+      try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+         raw.setLength(length - 2);
+      }
+      Assert.assertTrue(MappedLexicon.isCompiled(file.getPath()));
+      Assert.assertThrows(IllegalArgumentException.class,
+         () -> MappedLexicon.open(file.getPath()));
+
+      try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+         raw.setLength(length + 4);
+      }
+      Assert.assertThrows(IllegalArgumentException.class,
+         () -> MappedLexicon.open(file.getPath()));
+   }
+
+   /**Tests that a rotated, reflected or re-cased board is answered from
+    the cache, and that another kind of game or reloading an edited word
+    list of the same name is not.**/
+   @Test public void cachingGameTest() throws IOException {
+      File file = File.createTempFile("words", ".txt");
+      file.deleteOnExit();
+      Files.write(file.toPath(),
+         Arrays.asList("CAT", "CATS", "ACT", "TAX"));
+      SolutionCache cache = new SolutionCache(16);
+      CachingGame game = new CachingGame(new WordGame(), cache);
+      game.loadLexicon(file.getPath());
+
+      String[] board = {"C", "A", "T", "X", "X", "S", "X", "X", "X"};
+      String[] rotated = new String[board.length];
+      String[] reflected = new String[board.length];
+      for (int r = 0; r < 3; r++) {
+         for (int c = 0; c < 3; c++) {
+            rotated[r * 3 + c] = board[(2 - c) * 3 + r];
+            reflected[r * 3 + c] = board[r * 3 + 2 - c];
+         }
+      }
+      game.setBoard(board);
+      SortedSet<String> words = game.getAllScorableWords(3);
+      Assert.assertEquals(new TreeSet<String>(
+         Arrays.asList("CAT", "CATS", "TAX")), words);
+      Assert.assertEquals(1, cache.getMisses());
+
+      game.setBoard(rotated);
+      Assert.assertEquals(words, game.getAllScorableWords(3));
+      game.setBoard(reflected);
+      Assert.assertEquals(words, game.getAllScorableWords(3));
+      Assert.assertEquals(2, cache.getHits());
+      Assert.assertEquals(1, cache.getMisses());
+
+      String[] lower = new String[board.length];
+      for (int i = 0; i < board.length; i++) {
+         lower[i] = board[i].toLowerCase(Locale.ROOT);
+      }
+      game.setBoard(lower);
+      Assert.assertEquals(words, game.getAllScorableWords(3));
+      Assert.assertEquals(3, cache.getHits());
+
+      CachingGame other = new CachingGame(new Game(), cache);
+      other.loadLexicon(file.getPath());
+      other.setBoard(lower);
+      Assert.assertEquals(words, other.getAllScorableWords(3));
+      Assert.assertEquals(3, cache.getHits());
+      Assert.assertEquals(2, cache.getMisses());
+
+      Files.write(file.toPath(),
+         Arrays.asList("CAT", "SAT", "TAXA"));
+      game.loadLexicon(file.getPath());
+      game.setBoard(board);
+      Assert.assertEquals(new TreeSet<String>(
+         Arrays.asList("CAT", "SAT")), game.getAllScorableWords(3));
+      Assert.assertEquals(3, cache.getMisses());
+   }
+
+   /**Tests that appendBoard writes what getBoard returns, and that
+    the rendering follows a new board.**/
+   @Test public void appendBoardTest() throws IOException {
+      WordGame game = new WordGame();
+      game.setBoard(new String[] {"A", "B", "C", "D"});
+      Assert.assertEquals("[A, B]\n[C, D]\n", game.getBoard());
+
+      game.setBoard(new String[] {"QU", "B", "C", "D", "E", "F", "G", "H", "I"});
+      StringBuilder out = new StringBuilder();
+      game.appendBoard(out);
+      Assert.assertEquals("[QU, B, C]\n[D, E, F]\n[G, H, I]\n", out.toString());
+      Assert.assertEquals(out.toString(), game.getBoard());
+   }
+
    /** Tests setBoard when testArr.length is not a perfect square **/
    @Test public void setBoardTest2() {
       Assert.assertThrows(IllegalArgumentException.class, 
@@ -137,6 +256,25 @@ public class GameTest {
    }
 
 
+   /**Tests that a word anchored on its last tile, because that tile is
+    rarer on the board, gets the same path as its reverse searched forward,
+    including when the last tile has more than one character.**/
+   @Test public void isOnBoardReverseAnchorTest(){
+      WordGame w = new WordGame();
+      w.loadLexicon("words_small.txt");
+      w.setBoard(new String[] {"T", "X", "T", "X", "X", "X", "T", "A", "Q"});
+      List<Integer> path = w.isOnBoard("taq");
+      Assert.assertEquals(Arrays.asList(6, 7, 8), path);
+      List<Integer> forward = w.isOnBoard("QAT");
+      Collections.reverse(forward);
+      Assert.assertEquals(path, forward);
+
+      w.setBoard(new String[] {"T", "X", "T", "X", "X", "X", "T", "A", "QU"});
+      Assert.assertEquals(Arrays.asList(6, 7, 8), w.isOnBoard("TAQU"));
+      Assert.assertEquals(Arrays.asList(8, 7, 6), w.isOnBoard("QUAT"));
+      Assert.assertTrue(w.isOnBoard("TAQ").isEmpty());
+   }
+
 /**Tests the isOnBoard method when the search has to go through many starting points**/
    @Test public void isOnBoardTest4(){
       WordGame w = new WordGame();
@@ -276,6 +414,462 @@ public class GameTest {
       
       Assert.assertEquals(expected, actual);
    }
+   /**Tests that pruning the lexicon to the board finds the same words.**/
+   @Test public void pruneLexiconTest(){
+      WordGame w = new WordGame();
+      w.loadLexicon("words.txt");
+      w.setBoard(new String[] {"E", "E", "C", "A", "S", "A", "L", "E", "P", "T",
+                               "H", "N", "B", "O", "R", "QU", "T", "T", "Y", "I",
+                               "S", "E", "D", "A", "N"});
+      SortedSet<String> unpruned = w.getAllScorableWords(3);
+      Assert.assertFalse(unpruned.isEmpty());
+      w.setPruneLexicon(true);
+      Assert.assertEquals(unpruned, w.getAllScorableWords(3));
+      w.setPruneLexicon(false);
+      SortedSet<String> longWords = w.getAllScorableWords(5);
+      w.setPruneLexicon(true);
+      Assert.assertEquals(longWords, w.getAllScorableWords(5));
+   }
+   /**Tests that WALKER and PARALLEL return exactly what GRID returns,
+    upper-cased, on lower-case and mixed-case tiles.**/
+   @Test public void solveModeTest(){
+      String[][] boards = {
+         {"c", "a", "t", "s"},
+         {"e", "E", "c", "A", "s", "a", "L", "e", "P", "t", "h", "N", "b",
+          "O", "r", "qu", "T", "t", "Y", "i", "S", "e", "d", "A", "n"}};
+      Game grid = new Game();
+      Game walker = new Game();
+      walker.setSolveMode(Game.SolveMode.WALKER);
+      Game parallel = new Game();
+      parallel.setSolveMode(Game.SolveMode.PARALLEL);
+      Game[] games = {grid, walker, parallel};
+      for (Game game : games) {
+         game.loadLexicon("words.txt");
+      }
+      for (String[] tiles : boards) {
+         for (Game game : games) {
+            game.setBoard(tiles);
+         }
+         SortedSet<String> expected = grid.getAllScorableWords(3);
+         Assert.assertFalse(expected.isEmpty());
+         for (String word : expected) {
+            Assert.assertEquals(word.toUpperCase(), word);
+         }
+         Assert.assertEquals(expected, walker.getAllScorableWords(3));
+         Assert.assertEquals(expected, parallel.getAllScorableWords(3));
+      }
+   }
+   /**Tests that BatchSolver gives each board the words a game solving
+    that board alone finds, in the order the boards were given.**/
+   @Test public void batchSolverTest(){
+      List<String[]> boards = generatedBoards(3);
+      boards.add(new String[] {"qu", "I", "T", "S"});
+      ForkJoinPool pool = new ForkJoinPool(4);
+      try {
+         BatchSolver solver = new BatchSolver(Trie.load("words.txt"), pool);
+         assertSolvedAlone(boards, solver.solveAll(boards, 3));
+      }
+      finally {
+         pool.shutdown();
+      }
+   }
+
+   /**Tests that while one thread keeps switching ConcurrentGame between
+    two boards, readers only ever see the words and rendering of one board
+    or the other, never a mix.**/
+   @Test public void concurrentGameSnapshotTest() throws Exception {
+      String[][] boards = new BoardGenerator(2210L).boards(4, 2);
+      TrieGame reference = new TrieGame();
+      reference.loadLexicon("words.txt");
+      List<SortedSet<String>> words = new ArrayList<SortedSet<String>>();
+      List<String> renderings = new ArrayList<String>();
+      for (String[] tiles : boards) {
+         reference.setBoard(tiles);
+         words.add(reference.getAllScorableWords(3));
+         renderings.add(reference.getBoard());
+      }
+      Assert.assertFalse(words.get(0).equals(words.get(1)));
+
+      ConcurrentGame game = new ConcurrentGame();
+      game.loadLexicon("words.txt");
+      game.setBoard(boards[0]);
+      ExecutorService pool =
+         Executors.newFixedThreadPool(4);
+      AtomicBoolean done =
+         new AtomicBoolean();
+      try {
+         Future<?> writer = pool.submit(() -> {
+            for (int i = 0; !done.get(); i++) {
+               game.setBoard(boards[i % 2]);
+            }
+         });
+         List<Future<?>> readers =
+            new ArrayList<Future<?>>();
+         for (int r = 0; r < 3; r++) {
+            readers.add(pool.submit(() -> {
+               for (int i = 0; i < 200; i++) {
+                  Assert.assertTrue(words.contains(game.getAllScorableWords(3)));
+                  Assert.assertTrue(renderings.contains(game.getBoard()));
+               }
+            }));
+         }
+         for (Future<?> reader : readers) {
+            reader.get();
+         }
+         done.set(true);
+         writer.get();
+      }
+      finally {
+         done.set(true);
+         pool.shutdown();
+      }
+   }
+
+   /**Tests that a board's rating is what a game scores for every
+    scorable word on it, and that scores rates each board the same way.**/
+   @Test public void boardRaterTest(){
+      Lexicon lexicon = Trie.load("words.txt");
+      BoardRater rater = new BoardRater(lexicon);
+      TrieGame game = new TrieGame();
+      game.loadLexicon("words.txt");
+      List<String[]> boards = generatedBoards(2);
+      for (int min = 3; min <= 5; min++) {
+         int[] scores = BoardRater.scores(lexicon, boards, min);
+         for (int i = 0; i < boards.size(); i++) {
+            game.setBoard(boards.get(i));
+            SortedSet<String> words = game.getAllScorableWords(min);
+            BoardRater.Rating rating = rater.rate(boards.get(i), min);
+            Assert.assertEquals(game.getScoreForWords(words, min), rating.getScore());
+            Assert.assertEquals(words.size(), rating.getWords());
+            Assert.assertEquals(rating.getScore(), scores[i]);
+         }
+      }
+   }
+
+   /**Tests that the fork-join solve finds the serial solve's words, on a
+    board large enough to be split across tasks.**/
+   @Test public void parallelSolverTest(){
+      BoardWalker walker = new BoardWalker(Trie.load("words.txt"));
+      ForkJoinPool pool = new ForkJoinPool(4);
+      try {
+         ParallelSolver solver = new ParallelSolver(pool);
+         for (String[] tiles : new BoardGenerator(2210L).boards(8, 3)) {
+            walker.setBoard(tiles);
+            SortedSet<String> expected = new TreeSet<String>();
+            walker.solve(3, expected);
+            Assert.assertFalse(expected.isEmpty());
+            Assert.assertEquals(expected, solver.solve(walker, 3));
+         }
+      }
+      finally {
+         pool.shutdown();
+      }
+   }
+   /**Tests that a sink that throws leaves nothing behind for the next
+    search on the same walker.**/
+   @Test public void walkerSinkThrowsTest(){
+      String[] tiles = {"E", "E", "C", "A", "A", "L", "E", "P", "H",
+                        "N", "B", "O", "Q", "T", "T", "Y"};
+      BoardWalker walker = new BoardWalker(Trie.load("words.txt"));
+      walker.setBoard(tiles);
+      SortedSet<String> expected = new TreeSet<String>();
+      walker.solve(3, expected);
+      Assert.assertThrows(IllegalStateException.class,
+         ()->{
+            walker.solveNodes(3, (node, length) -> {
+               throw new IllegalStateException();
+            });
+         });
+      SortedSet<String> actual = new TreeSet<String>();
+      walker.solve(3, actual);
+      Assert.assertEquals(expected, actual);
+   }
+   /**Tests that getScoreForWords counts a cached lookup per word once the
+    board is solved, and a fresh search only for words it searches for, in
+    every game that caches its solution.**/
+   @Test public void scoreCountersTest(){
+      TrieGame t = new TrieGame();
+      assertScoreCounters(t, t::getCachedLookups, t::getFreshSearches);
+      Game g = new Game();
+      assertScoreCounters(g, g::getCachedLookups, g::getFreshSearches);
+      WordGame w = new WordGame();
+      assertScoreCounters(w, w::getCachedLookups, w::getFreshSearches);
+   }
+
+   private static void assertScoreCounters(WordSearchGame game,
+         LongSupplier cached, LongSupplier fresh) {
+      String[] tiles = {"E", "E", "C", "A", "A", "L", "E", "P", "H",
+                        "N", "B", "O", "Q", "T", "T", "Y"};
+      game.loadLexicon("words.txt");
+      game.setBoard(tiles);
+      SortedSet<String> words = new TreeSet<String>();
+      words.add("EA");
+      words.add("XQZXQZ");
+      String onBoard = game.getAllScorableWords(3).first();
+      game.setBoard(tiles);
+      words.add(onBoard.toLowerCase(Locale.ROOT));
+      int score = game.getScoreForWords(words, 3);
+      Assert.assertEquals(onBoard.length() - 2, score);
+      Assert.assertEquals(0, cached.getAsLong());
+      Assert.assertEquals(1, fresh.getAsLong());
+      
+      game.getAllScorableWords(3);
+      Assert.assertEquals(score, game.getScoreForWords(words, 3));
+      Assert.assertEquals(3, cached.getAsLong());
+      Assert.assertEquals(1, fresh.getAsLong());
+
+      game.loadLexicon("words.txt");
+      Assert.assertEquals(score, game.getScoreForWords(words, 3));
+      Assert.assertEquals(3, cached.getAsLong());
+      Assert.assertEquals(2, fresh.getAsLong());
+   }
+   /**Tests the trie-backed game against the project document board.**/
+   @Test public void trieGameIsOnBoardTest(){
+      TrieGame t = new TrieGame();
+      t.loadLexicon("words.txt");
+      t.setBoard(new String[]{"E", "E", "C", "A", "A", "L", "E", "P", "H", 
+                                  "N", "B", "O", "Q", "T", "T", "Y"});
+      List<Integer> expected = new ArrayList<Integer>();
+      expected.add(5);
+      expected.add(6);
+      expected.add(9);
+      expected.add(13);
+      Assert.assertEquals(expected, t.isOnBoard("lent"));
+   }
+
+   @Test public void trieGameScorableWordsTest(){
+      TrieGame t = new TrieGame();
+      t.loadLexicon("words_medium.txt");
+      t.setBoard(new String[] {"CAT","X","FISH","XXXX"});
+      SortedSet<String> expected = new TreeSet<String>();
+      expected.add("CAT");
+      expected.add("FISH");
+      expected.add("CATFISH");
+      Assert.assertEquals(expected, t.getAllScorableWords(3));
+      Assert.assertTrue(t.isValidPrefix("catf"));
+   }
+   /**Tests the int[] form of isOnBoard against the project document board.**/
+   @Test public void trieGameIsOnBoardArrayTest(){
+      TrieGame t = new TrieGame();
+      t.loadLexicon("words.txt");
+      int[] path = new int[16];
+      Assert.assertEquals(4, t.isOnBoard("LENT", path));
+      Assert.assertArrayEquals(new int[] {5, 6, 9, 13},
+         Arrays.copyOf(path, 4));
+      Assert.assertEquals(-1, t.isOnBoard("pecs", path));
+   }
+   /**Tests that every path getAllScorableWordPaths returns visits
+    distinct, adjacent cells whose tiles spell its word, and that it finds
+    the same words as getAllScorableWords.**/
+   @Test public void scorableWordPathsTest(){
+      TrieGame game = new TrieGame();
+      game.loadLexicon("words.txt");
+      for (String[] tiles : generatedBoards(3)) {
+         int n = (int) Math.sqrt(tiles.length);
+         game.setBoard(tiles);
+         SortedMap<String, int[]> paths = game.getAllScorableWordPaths(3);
+         Assert.assertEquals(game.getAllScorableWords(3), paths.keySet());
+         for (Map.Entry<String, int[]> entry : paths.entrySet()) {
+            int[] path = entry.getValue();
+            StringBuilder spelled = new StringBuilder();
+            Set<Integer> seen = new HashSet<Integer>();
+            for (int i = 0; i < path.length; i++) {
+               Assert.assertTrue(path[i] >= 0 && path[i] < tiles.length);
+               Assert.assertTrue(seen.add(path[i]));
+               if (i > 0) {
+                  Assert.assertTrue(Math.abs(path[i] / n - path[i - 1] / n) <= 1
+                     && Math.abs(path[i] % n - path[i - 1] % n) <= 1);
+               }
+               spelled.append(tiles[path[i]]);
+            }
+            Assert.assertEquals(entry.getKey(),
+               spelled.toString().toUpperCase(Locale.ROOT));
+         }
+      }
+   }
+
+   /**Tests that solving boards together gives each board's own words,
+    for boards of several sizes with multi-letter and empty tiles.**/
+   @Test public void multiBoardSolverTest(){
+      List<String[]> boards = generatedBoards(1);
+      boards.add(new String[] {"qu", "I", "T", "S"});
+      // empty tiles are passed through, so CAT is spelled around them
+      boards.add(new String[] {"C", "", "A", "", "", "", "T", "", ""});
+      for (String[] holes : new BoardGenerator(2210L).boards(4, 3)) {
+         for (int i = 1; i < holes.length; i += 3) {
+            holes[i] = "";
+         }
+         boards.add(holes);
+      }
+      List<SortedSet<String>> solved =
+         new MultiBoardSolver(Trie.load("words.txt")).solveAll(boards, 3);
+      assertSolvedAlone(boards, solved);
+      Assert.assertTrue(solved.get(boards.size() - 4).contains("CAT"));
+      Game g = new Game();
+      g.loadLexicon("words.txt");
+      for (int b = 0; b < boards.size(); b++) {
+         g.setBoard(boards.get(b));
+         Assert.assertEquals(g.getAllScorableWords(3), solved.get(b));
+      }
+   }
+
+   // perSize seeded boards of each size from 2x2 to 6x6, some of whose
+   // tiles have more than one letter
+   private static List<String[]> generatedBoards(int perSize) {
+      BoardGenerator generator = new BoardGenerator(2210L)
+         .multiTiles(BoardGenerator.MULTI_TILES, 4);
+      List<String[]> boards = new ArrayList<String[]>();
+      for (int n = 2; n <= 6; n++) {
+         boards.addAll(Arrays.asList(generator.boards(n, perSize)));
+      }
+      return boards;
+   }
+
+   // checks that solved holds, for each board in turn, the words TrieGame
+   // finds on that board alone at minimum length 3
+   private static void assertSolvedAlone(List<String[]> boards,
+         List<SortedSet<String>> solved) {
+      TrieGame game = new TrieGame();
+      game.loadLexicon("words.txt");
+      Assert.assertEquals(boards.size(), solved.size());
+      for (int b = 0; b < boards.size(); b++) {
+         game.setBoard(boards.get(b));
+         Assert.assertEquals(game.getAllScorableWords(3), solved.get(b));
+      }
+   }
+   /**Tests that hints are words made from the tiles' letters.**/
+   @Test public void wordsFromTilesTest(){
+      TrieGame t = new TrieGame();
+      t.loadLexicon("words_medium.txt");
+      SortedSet<String> words = t.wordsFromTiles(new String[] {"T", "C", "A"}, 3);
+      Assert.assertTrue(words.contains("CAT"));
+      for (String word : words) {
+         Assert.assertEquals(3, word.length());
+      }
+      Game g = new Game();
+      g.loadLexicon("words_medium.txt");
+      Assert.assertEquals(words, g.wordsFromTiles(new String[] {"A", "C", "T"}, 3));
+   }
+   /**Tests that the packed lexicon sorts, dedupes and ignores case.**/
+   @Test public void packedLexiconTest(){
+      List<String> words = new ArrayList<String>();
+      words.add("cat");
+      words.add("Catfish");
+      words.add("CAT");
+      words.add("ant");
+      PackedLexicon lexicon = PackedLexicon.of(words);
+      Assert.assertEquals(3, lexicon.size());
+      Assert.assertEquals("ANT", lexicon.get(0));
+      Assert.assertTrue(lexicon.contains("cAt"));
+      Assert.assertFalse(lexicon.contains("catf"));
+      Assert.assertTrue(lexicon.hasPrefix("catf"));
+      Assert.assertFalse(lexicon.hasPrefix("catz"));
+      Assert.assertEquals(7, lexicon.longestWithPrefix("ca"));
+      Assert.assertEquals(-1, lexicon.longestWithPrefix("catz"));
+      Assert.assertEquals(2, lexicon.countWithPrefix("ca"));
+      Assert.assertEquals(0, lexicon.countWithPrefix("catz"));
+
+      PackedLexicon.Subset subset = lexicon.subset();
+      subset.add(2);
+      Assert.assertEquals(1, subset.countWithPrefix("ca"));
+      Assert.assertEquals(0, subset.countWithPrefix("an"));
+      Assert.assertTrue(PackedLexicon.canGrow(3, 7, 16, 3));
+      Assert.assertFalse(PackedLexicon.canGrow(3, 3, 16, 3));
+      Assert.assertFalse(PackedLexicon.canGrow(3, 7, 3, 3));
+      Assert.assertFalse(PackedLexicon.canGrow(1, 7, 16, 8));
+   }
+   /**Tests that the search counters stay at zero when metrics are off,
+    count the searches when they are on, and go back to zero on reset.**/
+   @Test public void searchMetricsTest(){
+      Game game = new Game();
+      game.loadLexicon("words.txt");
+      SearchMetrics metrics = game.getSearchMetrics();
+      Assert.assertEquals(0L, metrics.getNodes());
+      Assert.assertEquals(0L, metrics.getPrefixLookups());
+
+      Assert.assertFalse(game.getAllScorableWords(3).isEmpty());
+      Assert.assertFalse(game.isOnBoard("PELEAN").isEmpty());
+      metrics = game.getSearchMetrics();
+      Assert.assertEquals(SearchMetrics.ENABLED, metrics.getNodes() > 0);
+      Assert.assertEquals(SearchMetrics.ENABLED, metrics.getPrefixLookups() > 0);
+      Assert.assertEquals(SearchMetrics.ENABLED, metrics.getPrefixMisses() > 0);
+      Assert.assertEquals(SearchMetrics.ENABLED, metrics.getMaxDepth() > 0);
+      Assert.assertEquals(SearchMetrics.ENABLED, metrics.getWords() > 0);
+      Assert.assertEquals(SearchMetrics.ENABLED, metrics.getSearchNanos() > 0);
+      Assert.assertTrue(metrics.getPrefixMisses() <= metrics.getPrefixLookups());
+
+      game.resetSearchMetrics();
+      metrics = game.getSearchMetrics();
+      Assert.assertEquals(0L, metrics.getNodes());
+      Assert.assertEquals(0L, metrics.getPrefixLookups());
+      Assert.assertEquals(0L, metrics.getWords());
+      Assert.assertEquals(0L, metrics.getSearchNanos());
+   }
+
+   /**Tests that cutting paths with no long enough word below them leaves
+    the words unchanged, and that the cuts are counted when metrics are on.**/
+   @Test public void searchCutoffTest(){
+      String[] tiles = {"E", "E", "C", "A", "S", "A", "L", "E", "P", "T",
+                        "H", "N", "B", "O", "R", "QU", "T", "T", "Y", "I",
+                        "S", "E", "D", "A", "N"};
+      TrieGame t = new TrieGame();
+      Game g = new Game();
+      WordGame w = new WordGame();
+      for (WordSearchGame game : new WordSearchGame[] {t, g, w}) {
+         game.loadLexicon("words.txt");
+         game.setBoard(tiles);
+      }
+      for (int min : new int[] {3, 6}) {
+         SortedSet<String> expected = t.getAllScorableWords(min);
+         Assert.assertEquals(expected, g.getAllScorableWords(min));
+         Assert.assertEquals(expected, w.getAllScorableWords(min));
+      }
+      for (SearchMetrics metrics : new SearchMetrics[] {g.getSearchMetrics(),
+            w.getSearchMetrics()}) {
+         Assert.assertEquals(SearchMetrics.ENABLED, metrics.getCuts() > 0);
+         Assert.assertTrue(metrics.getCutWords() >= metrics.getCuts());
+      }
+   }
+   /**Tests that the packed lexicon and the anagram index store and query
+    words alike when the default locale upper-cases "i" to a dotted
+    capital.**/
+   @Test public void lexiconLocaleTest(){
+      Locale saved = Locale.getDefault();
+      Locale.setDefault(new Locale("tr", "TR"));
+      try {
+         List<String> words = new ArrayList<String>();
+         words.add("pig");
+         words.add("inn");
+         PackedLexicon lexicon = PackedLexicon.of(words);
+         Assert.assertEquals("INN", lexicon.get(0));
+         Assert.assertTrue(lexicon.contains("pig"));
+         Assert.assertTrue(lexicon.contains("PIG"));
+         Assert.assertTrue(lexicon.hasPrefix("i"));
+         SortedSet<String> expected = new TreeSet<String>();
+         expected.add("PIG");
+         Assert.assertEquals(expected,
+            AnagramIndex.of(words).wordsFrom(new String[] {"G", "i", "P"}, 3));
+      }
+      finally {
+         Locale.setDefault(saved);
+      }
+   }
+   /**Tests that a wrapping rectangular board links its opposite edges.**/
+   @Test public void trieGameWrappingBoardTest(){
+      TrieGame t = new TrieGame();
+      t.loadLexicon("words_medium.txt");
+      String[] tiles = {"X", "X", "X", "T", "C", "A"};
+      t.setBoard(tiles, new BoardShape(2, 3, false, BoardShape.Connectivity.FOUR_WAY));
+      Assert.assertTrue(t.isOnBoard("cat").isEmpty());
+      t.setBoard(tiles, new BoardShape(2, 3, true, BoardShape.Connectivity.FOUR_WAY));
+      List<Integer> expected = new ArrayList<Integer>();
+      expected.add(4);
+      expected.add(5);
+      expected.add(3);
+      Assert.assertEquals(expected, t.isOnBoard("cat"));
+      Assert.assertEquals("[X, X, X]\n[T, C, A]\n", t.getBoard());
+   }
+
 /*These tests require direct acess to the lexicon, so don't do them without making lexicon public, K?
 
 ** Makes sure that the loadLexicon method creates a collection with the correct amount of words. **
@@ -0,0 +1,103 @@
+import java.util.function.Consumer;
+
+/**
+ * A word list that can be walked one letter at a time.
+ *
+ * Nodes are named by int handles rather than objects, so a board search
+ * can carry its place in the lexicon from one tile to the next without
+ * building a prefix string or allocating anything. Letters are matched
+ * without regard to case.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public interface Lexicon {
+   /** The node for the empty prefix. */
+   int ROOT = 0;
+   /** Returned when a walk falls off the lexicon. */
+   int NONE = -1;
+
+   /**
+    * Returns the node reached by following letter from node.
+    *
+    * @param node the node to start from
+    * @param letter the next letter of the prefix
+    * @return the child node, or NONE if no word continues with letter
+    */
+   int child(int node, char letter);
+
+   /**
+    * Determines if the prefix that leads to node is itself a word.
+    *
+    * @param node the node to check
+    * @return true if node ends a word in the lexicon
+    */
+   boolean isWord(int node);
+
+   /**
+    * Returns the number of words in the lexicon.
+    */
+   int size();
+
+   /**
+    * Passes every word in the lexicon, upper-cased, to action in sorted
+    * order.
+    *
+    * @param action receives the words
+    */
+   void forEachWord(Consumer<? super String> action);
+
+   /**
+    * Returns which of the letters A to Z node has children for: bit k is
+    * set if child(node, (char) ('A' + k)) is not NONE. Children for other
+    * characters are not reported.
+    *
+    * @param node the node to check
+    * @return the mask of letters that continue a word from node
+    */
+   default int letterMask(int node) {
+      int mask = 0;
+      for (int k = 0; k < 26; k++) {
+         if (child(node, (char) ('A' + k)) != NONE) {
+            mask |= 1 << k;
+         }
+      }
+      return mask;
+   }
+
+   /**
+    * Follows every character of letters from node. Used to step over a
+    * whole board tile, which may hold more than one letter.
+    *
+    * @param node the node to start from
+    * @param letters the letters to follow
+    * @return the node reached, or NONE if the walk leaves the lexicon
+    */
+   default int walk(int node, CharSequence letters) {
+      for (int i = 0; i < letters.length() && node != NONE; i++) {
+         node = child(node, letters.charAt(i));
+      }
+      return node;
+   }
+
+   /**
+    * Determines if word is in the lexicon.
+    *
+    * @param word the word to check
+    * @return true if word is in the lexicon
+    */
+   default boolean contains(CharSequence word) {
+      int node = walk(ROOT, word);
+      return node != NONE && isWord(node);
+   }
+
+   /**
+    * Determines if at least one word in the lexicon starts with prefix.
+    *
+    * @param prefix the prefix to check
+    * @return true if some word starts with prefix
+    */
+   default boolean hasPrefix(CharSequence prefix) {
+      return walk(ROOT, prefix) != NONE;
+   }
+}
@@ -0,0 +1,30 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * LexiconCompiler.java
+ * Compiles a word list into the binary format that MappedLexicon maps.
+ * The word list is read the same way loadLexicon reads it.
+ *
+ * Usage: java LexiconCompiler word-list output-file
+ */
+public class LexiconCompiler {
+
+   /** Drives execution. */
+   public static void main(String[] args) throws IOException {
+      if (args.length != 2) {
+         System.out.println("Usage: java LexiconCompiler word-list output-file");
+         return;
+      }
+      long start = System.nanoTime();
+      Trie trie = Trie.load(args[0]);
+      try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(args[1])))) {
+         trie.writeTo(out);
+      }
+      System.out.printf("%d words, %d nodes compiled in %d ms\n", trie.size(),
+         trie.nodeCount(), (System.nanoTime() - start) / 1_000_000);
+   }
+}
@@ -0,0 +1,120 @@
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LoadTest.java
+ * Pushes generated boards through setBoard and getAllScorableWords on a
+ * pool of threads and reports boards per second and latency percentiles.
+ *
+ * Each thread has its own game from WordSearchGameFactory, loaded before
+ * the clock starts, and threads take boards from a shared counter until
+ * all of them are solved. Latency is the time for one setBoard and
+ * getAllScorableWords pair.
+ *
+ * Usage: java LoadTest lexicon-file [N] [threads] [boards] [english|boggle|multi]
+ */
+public class LoadTest {
+
+   // boards solved by every thread before timing starts
+   private static final int WARMUP_BOARDS = 200;
+
+   private static final int MIN_LENGTH = 3;
+
+   private static final long SEED = 2210L;
+
+   // 1.0E6 ns per millisecond
+   private static final double MILLIS = 1_000_000d;
+
+   private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+   /** Drives execution. */
+   public static void main(String[] args) throws Exception {
+      if (args.length < 1) {
+         System.out.println(
+            "Usage: java LoadTest lexicon-file [N] [threads] [boards] [english|boggle|multi]");
+         return;
+      }
+      String lexicon = args[0];
+      int n = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+      int threads = args.length > 2 ? Integer.parseInt(args[2])
+         : Runtime.getRuntime().availableProcessors();
+      int count = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+      String kind = args.length > 4 ? args[4] : "english";
+      if (count < 1) {
+         System.out.println("boards must be at least 1");
+         return;
+      }
+
+      BoardGenerator generator = new BoardGenerator(SEED);
+      if (kind.equals("boggle")) {
+         generator.dice(BoardGenerator.BOGGLE_DICE);
+      }
+      else if (kind.equals("multi")) {
+         generator.multiTiles(BoardGenerator.MULTI_TILES, 8);
+      }
+      String[][] warmup = generator.boards(n, WARMUP_BOARDS);
+      String[][] boards = generator.boards(n, count);
+
+      long[] latency = new long[count];
+      AtomicInteger next = new AtomicInteger();
+      ExecutorService pool = Executors.newFixedThreadPool(threads);
+      List<Future<WordSearchGame>> ready = new ArrayList<Future<WordSearchGame>>();
+      for (int t = 0; t < threads; t++) {
+         ready.add(pool.submit(() -> {
+            WordSearchGame game = WordSearchGameFactory.createGame();
+            game.loadLexicon(lexicon);
+            for (String[] board : warmup) {
+               game.setBoard(board);
+               game.getAllScorableWords(MIN_LENGTH);
+            }
+            return game;
+         }));
+      }
+      List<WordSearchGame> games = new ArrayList<WordSearchGame>();
+      for (Future<WordSearchGame> f : ready) {
+         games.add(f.get());
+      }
+
+      List<Future<Long>> done = new ArrayList<Future<Long>>();
+      long start = System.nanoTime();
+      for (WordSearchGame game : games) {
+         done.add(pool.submit(() -> {
+            long words = 0;
+            int i;
+            while ((i = next.getAndIncrement()) < count) {
+               long begin = System.nanoTime();
+               game.setBoard(boards[i]);
+               words += game.getAllScorableWords(MIN_LENGTH).size();
+               latency[i] = System.nanoTime() - begin;
+            }
+            return words;
+         }));
+      }
+      long words = 0;
+      for (Future<Long> f : done) {
+         words += f.get();
+      }
+      long elapsed = System.nanoTime() - start;
+      pool.shutdown();
+
+      Arrays.sort(latency);
+      System.out.printf("%dx%d %s boards, %d threads: %.1f boards/s (%.1f words per board)\n",
+         n, n, kind, threads, count * 1_000_000_000d / elapsed, (double) words / count);
+      for (double p : PERCENTILES) {
+         System.out.printf("p%-5s %10.3f ms\n", p % 1 == 0 ? (int) p + "" : p + "",
+            percentile(latency, p) / MILLIS);
+      }
+      System.out.printf("max    %10.3f ms\n", latency[count - 1] / MILLIS);
+   }
+
+   // nearest-rank percentile of sorted
+   private static long percentile(long[] sorted, double p) {
+      int rank = (int) Math.ceil(p / 100 * sorted.length);
+      return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+   }
+}
@@ -0,0 +1,168 @@
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * A Trie read straight out of a memory-mapped file written by
+ * LexiconCompiler.
+ *
+ * Nothing is parsed or copied when the file is opened; lookups read the
+ * mapped pages directly, so a game is ready as soon as the file is mapped
+ * and every process on the host shares the same page cache.
+ *
+ * The file holds four ints (MAGIC, node count, edge count, word count),
+ * then the Trie's firstEdge and targets as ints, its labels as chars and
+ * one byte per node that is 1 when the node ends a word. Opening a file
+ * checks its length against the counts, so a truncated or partly written
+ * file is rejected up front rather than failing in the middle of a
+ * search.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class MappedLexicon implements Lexicon {
+   /** The first four bytes of a compiled lexicon, "LEX1". */
+   public static final int MAGIC = 0x4C455831;
+   private static final int HEADER = 16;
+
+   private final MappedByteBuffer map;
+   private final int size;
+   private final int firstEdgeAt;
+   private final int targetsAt;
+   private final int labelsAt;
+   private final int wordsAt;
+
+   private MappedLexicon(MappedByteBuffer map) {
+      this.map = map;
+      int nodes = map.getInt(4);
+      int edges = map.getInt(8);
+      size = map.getInt(12);
+      firstEdgeAt = HEADER;
+      targetsAt = firstEdgeAt + 4 * (nodes + 1);
+      labelsAt = targetsAt + 4 * edges;
+      wordsAt = labelsAt + 2 * edges;
+   }
+
+   /**
+    * Maps a compiled lexicon.
+    *
+    * @param fileName the name of a file written by LexiconCompiler
+    * @return the lexicon in the file
+    * @throws IllegalArgumentException if fileName is null.
+    * @throws IllegalArgumentException if file cannot be opened, was not
+    *     written by LexiconCompiler, or is not as long as its header says.
+    */
+   public static MappedLexicon open(String fileName) {
+      if (fileName == null) {
+         throw new IllegalArgumentException();
+      }
+      try (FileChannel channel = FileChannel.open(Paths.get(fileName),
+            StandardOpenOption.READ)) {
+         MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY,
+            0, channel.size());
+         if (map.limit() < HEADER || map.getInt(0) != MAGIC
+               || map.limit() != length(map.getInt(4), map.getInt(8), map.getInt(12))
+               || map.getInt(HEADER) != 0
+               || map.getInt(HEADER + 4 * map.getInt(4)) != map.getInt(8)) {
+            throw new IllegalArgumentException();
+         }
+         return new MappedLexicon(map);
+      }
+      catch (IOException e) {
+         throw new IllegalArgumentException();
+      }
+   }
+
+   // the bytes a file with these header counts takes up, or -1 if the
+   // counts cannot describe a Trie
+   private static long length(int nodes, int edges, int words) {
+      if (nodes < 1 || edges != nodes - 1 || words < 0 || words > nodes) {
+         return -1L;
+      }
+      return HEADER + 4L * (nodes + 1) + 4L * edges + 2L * edges + nodes;
+   }
+
+   /**
+    * Determines if a file is a compiled lexicon. Only the first four
+    * bytes are read, so a damaged compiled file still counts; open then
+    * rejects it rather than letting it be read as a word list.
+    *
+    * @param fileName the name of the file to check
+    * @return true if the file starts with MAGIC, false otherwise or if it
+    *     cannot be read
+    */
+   public static boolean isCompiled(String fileName) {
+      if (fileName == null) {
+         return false;
+      }
+      try (DataInputStream in = new DataInputStream(new FileInputStream(fileName))) {
+         return in.readInt() == MAGIC;
+      }
+      catch (IOException e) {
+         return false;
+      }
+   }
+
+   @Override
+   public int child(int node, char letter) {
+      char c = Character.toUpperCase(letter);
+      int end = map.getInt(firstEdgeAt + 4 * (node + 1));
+      for (int e = map.getInt(firstEdgeAt + 4 * node); e < end; e++) {
+         char label = map.getChar(labelsAt + 2 * e);
+         if (label == c) {
+            return map.getInt(targetsAt + 4 * e);
+         }
+         if (label > c) {
+            break;
+         }
+      }
+      return NONE;
+   }
+
+   @Override
+   public int letterMask(int node) {
+      int mask = 0;
+      int end = map.getInt(firstEdgeAt + 4 * (node + 1));
+      for (int e = map.getInt(firstEdgeAt + 4 * node); e < end; e++) {
+         char label = map.getChar(labelsAt + 2 * e);
+         if (label >= 'A' && label <= 'Z') {
+            mask |= 1 << (label - 'A');
+         }
+      }
+      return mask;
+   }
+
+   @Override
+   public boolean isWord(int node) {
+      return map.get(wordsAt + node) != 0;
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   @Override
+   public void forEachWord(Consumer<? super String> action) {
+      forEachWord(ROOT, new StringBuilder(), action);
+   }
+
+   // passes the words below node, which is reached by prefix, in order
+   private void forEachWord(int node, StringBuilder prefix,
+         Consumer<? super String> action) {
+      if (isWord(node)) {
+         action.accept(prefix.toString());
+      }
+      int end = map.getInt(firstEdgeAt + 4 * (node + 1));
+      for (int e = map.getInt(firstEdgeAt + 4 * node); e < end; e++) {
+         prefix.append(map.getChar(labelsAt + 2 * e));
+         forEachWord(map.getInt(targetsAt + 4 * e), prefix, action);
+         prefix.setLength(prefix.length() - 1);
+      }
+   }
+}
@@ -0,0 +1,311 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Solves many boards in one pass over the lexicon.
+ *
+ * Instead of walking the lexicon once per board, the solver walks it once
+ * for the whole batch. At each lexicon node it holds the frontier of every
+ * board: one state per path that spells the node's prefix, made of the
+ * board, the cell the path ends on, how much of that cell's tile has been
+ * read, and the cells the path has used. The states are grouped by the
+ * letter each can read next, so a child lookup is made once per letter
+ * for all boards together. A state is only made for a letter the
+ * lexicon can follow, which is checked against a mask of the node's
+ * child letters fetched once per node. An empty tile spells nothing, so
+ * as in BoardWalker a path may pass through it to the tiles beyond.
+ *
+ * Words are upper-cased, and each board's words are the same as
+ * getAllScorableWords gives for that board alone.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class MultiBoardSolver {
+   private final Lexicon lexicon;
+
+   /**
+    * Creates a solver over the given lexicon.
+    *
+    * @param lexicon the lexicon shared by every board
+    * @throws IllegalArgumentException if lexicon is null
+    */
+   public MultiBoardSolver(Lexicon lexicon) {
+      if (lexicon == null) {
+         throw new IllegalArgumentException();
+      }
+      this.lexicon = lexicon;
+   }
+
+   /**
+    * Retrieves all scorable words on each board, following the rules of
+    * WordSearchGame.getAllScorableWords.
+    *
+    * @param boards the boards to solve, each an array of N^2 tiles in
+    *     row-major order; boards may differ in size
+    * @param minimumWordLength The minimum allowed length (i.e., number of
+    *     characters) for any word found on a board.
+    * @return the words found on each board, in the same order as boards
+    * @throws IllegalArgumentException if boards is null, if any board is
+    *     null or not square, or if minimumWordLength < 1
+    */
+   public List<SortedSet<String>> solveAll(List<String[]> boards, int minimumWordLength) {
+      if (boards == null || minimumWordLength < 1) {
+         throw new IllegalArgumentException();
+      }
+      for (String[] letterArray : boards) {
+         if (letterArray == null || Math.sqrt(letterArray.length) % 1 != 0) {
+            throw new IllegalArgumentException();
+         }
+      }
+      return new Search(boards, minimumWordLength).run();
+   }
+
+   // the state of one batch solve
+   private final class Search {
+      private final char[][][] tiles;
+      private final Adjacency[] adjacency;
+      private final List<SortedSet<String>> found;
+      private final int min;
+      // longs in each state's visited set
+      private final int width;
+      // the prefix spelled at the current lexicon node
+      private char[] buffer = new char[16];
+      // levels[d] holds the states that have read d + 1 letters
+      private Level[] levels = new Level[16];
+
+      Search(List<String[]> boards, int min) {
+         this.min = min;
+         tiles = new char[boards.size()][][];
+         adjacency = new Adjacency[boards.size()];
+         found = new ArrayList<SortedSet<String>>();
+         int cells = 0;
+         for (int b = 0; b < tiles.length; b++) {
+            String[] letterArray = boards.get(b);
+            tiles[b] = new char[letterArray.length][];
+            for (int i = 0; i < letterArray.length; i++) {
+               tiles[b][i] = letterArray[i].toUpperCase(Locale.ROOT).toCharArray();
+            }
+            adjacency[b] = Adjacency.of((int) Math.sqrt(letterArray.length));
+            found.add(new TreeSet<String>());
+            cells = Math.max(cells, letterArray.length);
+         }
+         width = Math.max(1, (cells + 63) / 64);
+      }
+
+      List<SortedSet<String>> run() {
+         Level start = level(0);
+         start.clear();
+         int mask = lexicon.letterMask(Lexicon.ROOT);
+         for (int b = 0; b < tiles.length; b++) {
+            for (int cell = 0; cell < tiles[b].length; cell++) {
+               if (tiles[b][cell].length > 0) {
+                  int at = start.add(b, cell, 1, tiles[b][cell][0]);
+                  Arrays.fill(start.visited, at * width, (at + 1) * width, 0L);
+                  start.visited[at * width + (cell >>> 6)] |= 1L << cell;
+               }
+               else {
+                  long[] seen = new long[width];
+                  seen[cell >>> 6] |= 1L << cell;
+                  spread(start, b, cell, seen, 0, mask);
+               }
+            }
+         }
+         advance(Lexicon.ROOT, start, 0);
+         return found;
+      }
+
+      // follows each group of states in out, which have read depth + 1
+      // letters, from node by the letter the group shares
+      private void advance(int node, Level out, int depth) {
+         out.sort();
+         int g = 0;
+         while (g < out.size) {
+            char c = out.letter(g);
+            int h = g + 1;
+            while (h < out.size && out.letter(h) == c) {
+               h++;
+            }
+            int child = lexicon.child(node, c);
+            if (child != Lexicon.NONE) {
+               if (depth == buffer.length) {
+                  buffer = Arrays.copyOf(buffer, depth * 2);
+               }
+               buffer[depth] = c;
+               descend(child, out, g, h, depth + 1);
+            }
+            g = h;
+         }
+      }
+
+      // the states in.order[from, to) have spelled the depth letters of
+      // buffer, reaching node
+      private void descend(int node, Level in, int from, int to, int depth) {
+         if (depth >= min && lexicon.isWord(node)) {
+            String word = null;
+            for (int r = from; r < to; r++) {
+               int i = in.order[r];
+               int b = in.board[i];
+               if (in.pos[i] == tiles[b][in.cell[i]].length) {
+                  if (word == null) {
+                     word = new String(buffer, 0, depth);
+                  }
+                  found.get(b).add(word);
+               }
+            }
+         }
+         Level out = level(depth);
+         out.clear();
+         int mask = lexicon.letterMask(node);
+         for (int r = from; r < to; r++) {
+            int i = in.order[r];
+            int b = in.board[i];
+            int cell = in.cell[i];
+            int pos = in.pos[i];
+            char[] tile = tiles[b][cell];
+            if (pos < tile.length) {
+               if (follows(mask, tile[pos])) {
+                  int at = out.add(b, cell, pos + 1, tile[pos]);
+                  copyVisited(in, i, out, at);
+               }
+               continue;
+            }
+            spread(out, b, cell, in.visited, i * width, mask);
+         }
+         if (out.size > 0) {
+            advance(node, out, depth);
+         }
+      }
+
+      // adds to out a state for each cell next to cell, on board b, that
+      // the path whose cells are marked in seen from offset on has not
+      // used and whose tile can follow; the path passes through empty
+      // tiles to the cells beyond them
+      private void spread(Level out, int b, int cell, long[] seen, int offset, int mask) {
+         Adjacency table = adjacency[b];
+         for (int k = table.start(cell); k < table.end(cell); k++) {
+            int next = table.get(k);
+            if ((seen[offset + (next >>> 6)] & (1L << next)) != 0) {
+               continue;
+            }
+            char[] tile = tiles[b][next];
+            if (tile.length == 0) {
+               long[] through = Arrays.copyOfRange(seen, offset, offset + width);
+               through[next >>> 6] |= 1L << next;
+               spread(out, b, next, through, 0, mask);
+            }
+            else if (follows(mask, tile[0])) {
+               int at = out.add(b, next, 1, tile[0]);
+               System.arraycopy(seen, offset, out.visited, at * width, width);
+               out.visited[at * width + (next >>> 6)] |= 1L << next;
+            }
+         }
+      }
+
+      // whether letter may continue from a node with the given letter mask;
+      // letters outside A to Z are left to the child lookup
+      private boolean follows(int mask, char letter) {
+         return letter < 'A' || letter > 'Z' || (mask & (1 << (letter - 'A'))) != 0;
+      }
+
+      private void copyVisited(Level from, int i, Level to, int at) {
+         if (width == 1) {
+            to.visited[at] = from.visited[i];
+         }
+         else {
+            System.arraycopy(from.visited, i * width, to.visited, at * width, width);
+         }
+      }
+
+      private Level level(int depth) {
+         if (depth == levels.length) {
+            levels = Arrays.copyOf(levels, depth * 2);
+         }
+         if (levels[depth] == null) {
+            levels[depth] = new Level(width);
+         }
+         return levels[depth];
+      }
+   }
+
+   // states in parallel arrays, grouped by next letter through order
+   private static final class Level {
+      private final int width;
+      private int size;
+      private int[] board = new int[64];
+      private int[] cell = new int[64];
+      private int[] pos = new int[64];
+      private long[] visited;
+      // the letter each state reads next
+      private char[] next = new char[64];
+      // state indices, sorted by next letter
+      private int[] order = new int[64];
+      // whether every next letter is in A to Z
+      private boolean plain;
+      private final int[] counts = new int[27];
+
+      Level(int width) {
+         this.width = width;
+         visited = new long[64 * width];
+      }
+
+      void clear() {
+         size = 0;
+         plain = true;
+      }
+
+      // adds a state whose visited set is to be filled in; returns its index
+      int add(int b, int c, int p, char letter) {
+         if (size == board.length) {
+            int capacity = size * 2;
+            board = Arrays.copyOf(board, capacity);
+            cell = Arrays.copyOf(cell, capacity);
+            pos = Arrays.copyOf(pos, capacity);
+            next = Arrays.copyOf(next, capacity);
+            order = Arrays.copyOf(order, capacity);
+            visited = Arrays.copyOf(visited, capacity * width);
+         }
+         board[size] = b;
+         cell[size] = c;
+         pos[size] = p;
+         next[size] = letter;
+         plain &= letter >= 'A' && letter <= 'Z';
+         return size++;
+      }
+
+      // orders the states by the letter each reads next, stably
+      void sort() {
+         if (plain) {
+            // counting sort over the alphabet
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++) {
+               counts[next[i] - 'A' + 1]++;
+            }
+            for (int k = 1; k < counts.length; k++) {
+               counts[k] += counts[k - 1];
+            }
+            for (int i = 0; i < size; i++) {
+               order[counts[next[i] - 'A']++] = i;
+            }
+            return;
+         }
+         long[] keys = new long[size];
+         for (int i = 0; i < size; i++) {
+            keys[i] = ((long) next[i] << 32) | i;
+         }
+         Arrays.sort(keys);
+         for (int r = 0; r < size; r++) {
+            order[r] = (int) keys[r];
+         }
+      }
+
+      // the letter the r-th sorted state reads next
+      char letter(int r) {
+         return next[order[r]];
+      }
+   }
+}
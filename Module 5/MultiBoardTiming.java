@@ -0,0 +1,70 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * MultiBoardTiming.java
+ * Compares solving a round of boards one at a time with BoardWalker
+ * against solving them together with MultiBoardSolver.
+ *
+ * Usage: java MultiBoardTiming lexicon-file [N] [boards]
+ */
+public class MultiBoardTiming {
+
+   // untimed rounds to let the JIT compile both searches
+   private static final int WARMUP_RUNS = 5;
+
+   // number of timing runs to make
+   private static final int NUM_RUNS = 10;
+
+   private static final int MIN_LENGTH = 3;
+
+   private static final long SEED = 2210L;
+
+   // 1.0E6 ns per millisecond
+   private static final double MILLIS = 1_000_000d;
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      if (args.length < 1) {
+         System.out.println("Usage: java MultiBoardTiming lexicon-file [N] [boards]");
+         return;
+      }
+      int n = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+      int count = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+      Lexicon lexicon = MappedLexicon.isCompiled(args[0])
+         ? MappedLexicon.open(args[0]) : Trie.load(args[0]);
+      List<String[]> round = Arrays.asList(new BoardGenerator(SEED).boards(n, count));
+      BoardWalker walker = new BoardWalker(lexicon);
+      MultiBoardSolver solver = new MultiBoardSolver(lexicon);
+
+      for (int i = 0; i < WARMUP_RUNS; i++) {
+         solveEach(walker, round);
+         solver.solveAll(round, MIN_LENGTH);
+      }
+      long each = 0;
+      long together = 0;
+      for (int i = 0; i < NUM_RUNS; i++) {
+         long start = System.nanoTime();
+         solveEach(walker, round);
+         each += System.nanoTime() - start;
+         start = System.nanoTime();
+         solver.solveAll(round, MIN_LENGTH);
+         together += System.nanoTime() - start;
+      }
+      System.out.printf("%d boards of %dx%d: %8.3f ms per round one at a time\n",
+         count, n, n, each / NUM_RUNS / MILLIS);
+      System.out.printf("%d boards of %dx%d: %8.3f ms per round together\n",
+         count, n, n, together / NUM_RUNS / MILLIS);
+   }
+
+   private static void solveEach(BoardWalker walker, List<String[]> round) {
+      for (String[] board : round) {
+         walker.setBoard(board);
+         SortedSet<String> words = new TreeSet<String>();
+         walker.solve(MIN_LENGTH, words);
+      }
+   }
+}
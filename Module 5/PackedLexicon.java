@@ -0,0 +1,405 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * A sorted, upper-cased word list packed into one byte array.
+ *
+ * The words are stored back to back, one byte per character, and an
+ * offset table marks where each starts. Compared with a TreeSet of
+ * Strings this drops the per-word String, array and tree-node overhead
+ * and halves the characters themselves. Lookups binary search the
+ * offsets and compare the query a character at a time, upper-casing each
+ * character as it is read, so they never allocate.
+ *
+ * Each prefix also answers how many words start with it and how long the
+ * longest of them is. Those words are one run of the sorted list, so the
+ * count is the run's length and the longest comes from a max tree over
+ * the word lengths. A board search uses the longest to stop a path that
+ * can no longer spell a longer word, and the count to report how many
+ * words each stop skipped.
+ *
+ * A Subset marks some of the words, such as those a board's letters can
+ * spell, in a bit set over their sorted positions, so a search can be
+ * narrowed to them without sorting or copying any words.
+ *
+ * Characters must be Latin-1 once upper-cased, which every ASCII word
+ * list is.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public final class PackedLexicon implements Iterable<String> {
+   private final byte[] chars;
+   // word i is chars[offsets[i]] to chars[offsets[i + 1] - 1]
+   private final int[] offsets;
+   // lengths[size() + i] is word i's length, capped at LONG, and
+   // lengths[k] is the larger of lengths[2k] and lengths[2k + 1]
+   private final byte[] lengths;
+   // lengths this long or longer are not told apart
+   private static final int LONG = 0xFF;
+
+   private PackedLexicon(byte[] chars, int[] offsets) {
+      this.chars = chars;
+      this.offsets = offsets;
+      int n = offsets.length - 1;
+      lengths = new byte[2 * n];
+      for (int i = 0; i < n; i++) {
+         lengths[n + i] = (byte) Math.min(LONG, offsets[i + 1] - offsets[i]);
+      }
+      for (int k = n - 1; k > 0; k--) {
+         lengths[k] = (byte) Math.max(lengths[2 * k] & 0xFF, lengths[2 * k + 1] & 0xFF);
+      }
+   }
+
+   /**
+    * Packs the given words. Words are upper-cased the way queries are, in
+    * no particular locale, and duplicates dropped; null and empty entries
+    * are ignored.
+    *
+    * @param source the words to store
+    * @return a lexicon holding every word in source
+    * @throws IllegalArgumentException if source is null, or if a word
+    *     holds a character outside Latin-1 once upper-cased
+    */
+   public static PackedLexicon of(Iterable<String> source) {
+      if (source == null) {
+         throw new IllegalArgumentException();
+      }
+      List<String> words = new ArrayList<String>();
+      for (String word : source) {
+         if (word != null && !word.isEmpty()) {
+            words.add(word.toUpperCase(Locale.ROOT));
+         }
+      }
+      return pack(words);
+   }
+
+   // sorts and dedupes upper-cased words and packs them
+   private static PackedLexicon pack(List<String> words) {
+      Collections.sort(words);
+      int count = 0;
+      int length = 0;
+      for (int i = 0; i < words.size(); i++) {
+         if (i == 0 || !words.get(i).equals(words.get(i - 1))) {
+            count++;
+            length += words.get(i).length();
+         }
+      }
+      byte[] chars = new byte[length];
+      int[] offsets = new int[count + 1];
+      int w = 0;
+      int at = 0;
+      for (int i = 0; i < words.size(); i++) {
+         String word = words.get(i);
+         if (i > 0 && word.equals(words.get(i - 1))) {
+            continue;
+         }
+         offsets[w++] = at;
+         for (int k = 0; k < word.length(); k++) {
+            char c = word.charAt(k);
+            if (c > 0xFF) {
+               throw new IllegalArgumentException();
+            }
+            chars[at++] = (byte) c;
+         }
+      }
+      offsets[count] = at;
+      return new PackedLexicon(chars, offsets);
+   }
+
+   /**
+    * Returns the number of words.
+    */
+   public int size() {
+      return offsets.length - 1;
+   }
+
+   /**
+    * Returns the word at the given position in sorted order.
+    *
+    * @param index the position of the word
+    * @return the word
+    * @throws IndexOutOfBoundsException if index is not in [0, size())
+    */
+   public String get(int index) {
+      if (index < 0 || index >= size()) {
+         throw new IndexOutOfBoundsException();
+      }
+      int start = offsets[index];
+      char[] word = new char[offsets[index + 1] - start];
+      for (int k = 0; k < word.length; k++) {
+         word[k] = (char) (chars[start + k] & 0xFF);
+      }
+      return new String(word);
+   }
+
+   /**
+    * Determines if word is in the lexicon, ignoring case.
+    *
+    * @param word the word to check
+    * @return true if word is in the lexicon
+    */
+   public boolean contains(CharSequence word) {
+      return indexOf(word) >= 0;
+   }
+
+   /**
+    * Determines if at least one word starts with prefix, ignoring case.
+    *
+    * @param prefix the prefix to check
+    * @return true if some word starts with prefix
+    */
+   public boolean hasPrefix(CharSequence prefix) {
+      int i = ceiling(prefix);
+      return i < size() && startsWith(i, prefix);
+   }
+
+   /**
+    * Returns the length of the longest word that starts with prefix,
+    * ignoring case.
+    *
+    * @param prefix the prefix to check
+    * @return the length of the longest word starting with prefix, -1 if
+    *     there is none, or Integer.MAX_VALUE if it has 255 characters or
+    *     more
+    */
+   public int longestWithPrefix(CharSequence prefix) {
+      int first = ceiling(prefix);
+      int end = prefixEnd(prefix, first);
+      return first == end ? -1 : longestIn(first, end);
+   }
+
+   /**
+    * Returns the number of words that start with prefix, ignoring case.
+    *
+    * @param prefix the prefix to check
+    * @return how many words start with prefix
+    */
+   public int countWithPrefix(CharSequence prefix) {
+      int first = ceiling(prefix);
+      return prefixEnd(prefix, first) - first;
+   }
+
+   /**
+    * Determines if a search path can still grow into a scorable word: some
+    * word below it must be longer than the path, have at least min
+    * characters and fit in the characters the board holds.
+    *
+    * @param length the characters the path spells
+    * @param longest the longest word starting with the path, as
+    *     longestWithPrefix gives it
+    * @param limit the characters on the whole board, the most any path can
+    *     spell
+    * @param min the fewest characters a scorable word has
+    * @return true if the path is worth following further
+    */
+   public static boolean canGrow(int length, int longest, int limit, int min) {
+      return Math.min(longest, limit) >= Math.max(min, length + 1);
+   }
+
+   /**
+    * Returns an empty subset of the words.
+    */
+   public Subset subset() {
+      return new Subset();
+   }
+
+   /**
+    * Returns the number of bytes the words, offsets and lengths take up.
+    */
+   public long footprint() {
+      return chars.length + 4L * offsets.length + lengths.length;
+   }
+
+   // the length of the longest of words first to end - 1, as
+   // longestWithPrefix reports it
+   private int longestIn(int first, int end) {
+      int longest = 0;
+      int n = size();
+      for (int low = first + n, high = end + n; low < high; low >>>= 1, high >>>= 1) {
+         if ((low & 1) == 1) {
+            longest = Math.max(longest, lengths[low++] & 0xFF);
+         }
+         if ((high & 1) == 1) {
+            longest = Math.max(longest, lengths[--high] & 0xFF);
+         }
+      }
+      return longest == LONG ? Integer.MAX_VALUE : longest;
+   }
+
+   @Override
+   public Iterator<String> iterator() {
+      return new Iterator<String>() {
+         private int next;
+
+         @Override
+         public boolean hasNext() {
+            return next < size();
+         }
+
+         @Override
+         public String next() {
+            if (!hasNext()) {
+               throw new NoSuchElementException();
+            }
+            return get(next++);
+         }
+      };
+   }
+
+   // the position of word, or -1 if it is not in the lexicon
+   private int indexOf(CharSequence word) {
+      int i = ceiling(word);
+      return i < size() && offsets[i + 1] - offsets[i] == word.length()
+         && startsWith(i, word) ? i : -1;
+   }
+
+   // the position of the first word not less than key, or size() if none
+   private int ceiling(CharSequence key) {
+      int low = 0;
+      int high = size();
+      while (low < high) {
+         int mid = (low + high) >>> 1;
+         if (compare(mid, key) < 0) {
+            low = mid + 1;
+         }
+         else {
+            high = mid;
+         }
+      }
+      return low;
+   }
+
+   // the position after the last word from first on that starts with
+   // prefix; the words that do are a run beginning at first. Runs are
+   // short once a prefix has a few letters, so the end is found by
+   // doubling steps before the binary search
+   private int prefixEnd(CharSequence prefix, int first) {
+      int low = first;
+      int step = 1;
+      while (low + step < size() && startsWith(low + step, prefix)) {
+         low += step;
+         step <<= 1;
+      }
+      int high = Math.min(size(), low + step);
+      while (low < high) {
+         int mid = (low + high) >>> 1;
+         if (startsWith(mid, prefix)) {
+            low = mid + 1;
+         }
+         else {
+            high = mid;
+         }
+      }
+      return low;
+   }
+
+   // compares word i with key, upper-casing key as it is read
+   private int compare(int i, CharSequence key) {
+      int start = offsets[i];
+      int length = offsets[i + 1] - start;
+      int n = Math.min(length, key.length());
+      for (int k = 0; k < n; k++) {
+         char c = (char) (chars[start + k] & 0xFF);
+         char q = Character.toUpperCase(key.charAt(k));
+         if (c != q) {
+            return c - q;
+         }
+      }
+      return length - key.length();
+   }
+
+   // whether word i starts with prefix, ignoring the case of prefix
+   private boolean startsWith(int i, CharSequence prefix) {
+      int start = offsets[i];
+      if (offsets[i + 1] - start < prefix.length()) {
+         return false;
+      }
+      for (int k = 0; k < prefix.length(); k++) {
+         if ((chars[start + k] & 0xFF) != Character.toUpperCase(prefix.charAt(k))) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Some of the lexicon's words, marked by their sorted positions. Adding
+    * a word sets one bit, so one subset can be refilled for each board.
+    */
+   public final class Subset {
+      private final BitSet kept = new BitSet(size());
+
+      private Subset() {
+      }
+
+      /**
+       * Marks the word at the given sorted position as part of the subset.
+       *
+       * @param index the position of the word, as get takes it
+       * @throws IndexOutOfBoundsException if index is not in [0, size())
+       */
+      public void add(int index) {
+         if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+         }
+         kept.set(index);
+      }
+
+      /**
+       * Removes every word from the subset.
+       */
+      public void clear() {
+         kept.clear();
+      }
+
+      /**
+       * Determines if word is in the subset, ignoring case.
+       *
+       * @param word the word to check
+       * @return true if word is in the subset
+       */
+      public boolean contains(CharSequence word) {
+         int i = indexOf(word);
+         return i >= 0 && kept.get(i);
+      }
+
+      /**
+       * Returns the number of words in the subset that start with prefix,
+       * ignoring case.
+       *
+       * @param prefix the prefix to check
+       * @return how many words in the subset start with prefix
+       */
+      public int countWithPrefix(CharSequence prefix) {
+         int first = ceiling(prefix);
+         int end = prefixEnd(prefix, first);
+         int count = 0;
+         for (int i = kept.nextSetBit(first); i >= 0 && i < end; i = kept.nextSetBit(i + 1)) {
+            count++;
+         }
+         return count;
+      }
+
+      /**
+       * Returns a bound on the longest word in the subset that starts with
+       * prefix, ignoring case. The bound is the longest such word in the
+       * whole lexicon, which is never shorter.
+       *
+       * @param prefix the prefix to check
+       * @return -1 if no word in the subset starts with prefix, otherwise
+       *     a length at least that of the longest one that does
+       */
+      public int longestWithPrefix(CharSequence prefix) {
+         int first = ceiling(prefix);
+         int end = prefixEnd(prefix, first);
+         int i = kept.nextSetBit(first);
+         return i < 0 || i >= end ? -1 : longestIn(first, end);
+      }
+   }
+}
@@ -0,0 +1,113 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds every scorable word on a board using a ForkJoinPool.
+ *
+ * The board is split by starting cell. On large boards each starting
+ * cell is split again by its first neighbor, since a single branch there
+ * can hold far more work than a whole small board. Every task searches
+ * with its own fork of the BoardWalker and returns its words in a list;
+ * the lists are merged into one sorted set at the end.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class ParallelSolver {
+   // boards with at least this many cells split below the starting cell
+   private static final int SPLIT_CELLS = 64;
+
+   private final ForkJoinPool pool;
+
+   /**
+    * Creates a solver that runs on the common pool.
+    */
+   public ParallelSolver() {
+      this(ForkJoinPool.commonPool());
+   }
+
+   /**
+    * Creates a solver that runs on the given pool.
+    *
+    * @param pool the pool the search tasks are submitted to
+    * @throws IllegalArgumentException if pool is null
+    */
+   public ParallelSolver(ForkJoinPool pool) {
+      if (pool == null) {
+         throw new IllegalArgumentException();
+      }
+      this.pool = pool;
+   }
+
+   /**
+    * Returns the same words as walker.solve(min, ...) would find.
+    *
+    * @param walker a walker whose board has been set; it is only forked,
+    *     never searched with directly
+    * @param min the minimum number of characters per word
+    * @return every word of at least min characters on the board
+    */
+   public SortedSet<String> solve(BoardWalker walker, int min) {
+      int cells = walker.cells();
+      List<String> words = pool.invoke(new PathTask(walker, new int[0], min,
+         cells >= SPLIT_CELLS));
+      return new TreeSet<String>(words);
+   }
+
+   // searches every path that starts with the given cells
+   private static class PathTask extends RecursiveTask<List<String>> {
+      private static final long serialVersionUID = 1L;
+
+      private final BoardWalker board;
+      private final int[] path;
+      private final int min;
+      private final boolean split;
+
+      PathTask(BoardWalker board, int[] path, int min, boolean split) {
+         this.board = board;
+         this.path = path;
+         this.min = min;
+         this.split = split;
+      }
+
+      @Override
+      protected List<String> compute() {
+         List<String> words = new ArrayList<String>();
+         if (path.length == 0) {
+            List<PathTask> tasks = new ArrayList<PathTask>();
+            for (int cell = 0; cell < board.cells(); cell++) {
+               tasks.add(new PathTask(board, new int[] {cell}, min, split));
+            }
+            merge(tasks, words);
+         }
+         else if (path.length == 1 && split) {
+            String word = board.fork().wordAt(path, 1, min);
+            if (word != null) {
+               words.add(word);
+            }
+            Adjacency adjacency = board.adjacency();
+            List<PathTask> tasks = new ArrayList<PathTask>();
+            for (int k = adjacency.start(path[0]); k < adjacency.end(path[0]); k++) {
+               tasks.add(new PathTask(board, new int[] {path[0], adjacency.get(k)},
+                  min, split));
+            }
+            merge(tasks, words);
+         }
+         else {
+            board.fork().solvePath(path, path.length, min, words);
+         }
+         return words;
+      }
+
+      private static void merge(List<PathTask> tasks, List<String> words) {
+         invokeAll(tasks);
+         for (PathTask task : tasks) {
+            words.addAll(task.join());
+         }
+      }
+   }
+}
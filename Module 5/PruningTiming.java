@@ -0,0 +1,57 @@
+/**
+ * PruningTiming.java
+ * Shows what cutting the lexicon down to each board costs and what it
+ * saves in WordGame's board search.
+ *
+ * Usage: java PruningTiming lexicon-file [N] [boards]
+ */
+public class PruningTiming {
+
+   private static final int MIN_LENGTH = 3;
+
+   private static final long SEED = 2210L;
+
+   // 1.0E6 ns per millisecond
+   private static final double MILLIS = 1_000_000d;
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      if (args.length < 1) {
+         System.out.println("Usage: java PruningTiming lexicon-file [N] [boards]");
+         return;
+      }
+      int n = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+      int numBoards = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+      WordGame game = new WordGame();
+      game.loadLexicon(args[0]);
+      String[][] boards = new BoardGenerator(SEED).boards(n, numBoards);
+
+      for (boolean prune : new boolean[] {false, true}) {
+         game.setPruneLexicon(prune);
+         // one untimed pass to let the JIT compile both paths
+         solveAll(game, boards);
+         double filter = 0d;
+         double search = 0d;
+         int words = 0;
+         for (String[] board : boards) {
+            game.setBoard(board);
+            words += game.getAllScorableWords(MIN_LENGTH).size();
+            filter += game.getFilterTime();
+            search += game.getSearchTime();
+         }
+         filter = filter / numBoards / MILLIS;
+         search = search / numBoards / MILLIS;
+         System.out.printf("%-9s %dx%d: filter %8.3f ms + search %8.3f ms = %8.3f ms per board"
+            + " (%d words)\n", prune ? "pruned" : "unpruned", n, n, filter, search,
+            filter + search, words);
+      }
+   }
+
+   private static void solveAll(WordGame game, String[][] boards) {
+      for (String[] board : boards) {
+         game.setBoard(board);
+         game.getAllScorableWords(MIN_LENGTH);
+      }
+   }
+}
@@ -0,0 +1,51 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RatingTiming.java
+ * Rates a batch of generated boards by best score, reports how many
+ * boards per second BoardRater gets through, and prints the richest.
+ *
+ * Usage: java RatingTiming lexicon-file [N] [boards] [top]
+ */
+public class RatingTiming {
+
+   // untimed batches to let the JIT compile the search
+   private static final int WARMUP_RUNS = 3;
+
+   private static final int MIN_LENGTH = 3;
+
+   private static final long SEED = 2210L;
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      if (args.length < 1) {
+         System.out.println("Usage: java RatingTiming lexicon-file [N] [boards] [top]");
+         return;
+      }
+      int n = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+      int count = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+      int top = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+      Lexicon lexicon = MappedLexicon.isCompiled(args[0])
+         ? MappedLexicon.open(args[0]) : Trie.load(args[0]);
+      List<String[]> boards = Arrays.asList(new BoardGenerator(SEED)
+         .dice(BoardGenerator.BOGGLE_DICE).boards(n, count));
+
+      for (int i = 0; i < WARMUP_RUNS; i++) {
+         BoardRater.scores(lexicon, boards, MIN_LENGTH);
+      }
+      long start = System.nanoTime();
+      int[] best = BoardRater.rank(lexicon, boards, MIN_LENGTH, top);
+      long elapsed = System.nanoTime() - start;
+      System.out.printf("%dx%d: %.1f boards/s\n", n, n, count * 1_000_000_000d / elapsed);
+
+      BoardRater rater = new BoardRater(lexicon);
+      for (int i : best) {
+         BoardRater.Rating rating = rater.rate(boards.get(i), MIN_LENGTH);
+         System.out.printf("board %d: %d points from %d words, longest worth %d\n",
+            i, rating.getScore(), rating.getWords(), rating.getMaxPoints());
+         System.out.print(BoardText.render(boards.get(i), n));
+      }
+   }
+}
@@ -0,0 +1,189 @@
+/**
+ * A snapshot of what the board searches have done: how many nodes they
+ * expanded, how many prefix checks they made and how many missed, how
+ * many branches they cut because no scorable word could lie below and
+ * how many lexicon words those branches held, the
+ * deepest path they reached, how many word paths they found and how long
+ * they spent preparing and searching.
+ *
+ * Counting is off unless the JVM is started with
+ * -Dwordsearch.metrics=true. ENABLED is a compile-time constant to the
+ * JIT, so when it is false every counting call is removed and the
+ * searches run exactly as they would without it.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public final class SearchMetrics {
+   /** Whether the searches count anything; read once at startup. */
+   public static final boolean ENABLED = Boolean.getBoolean("wordsearch.metrics");
+
+   private final long nodes;
+   private final long prefixLookups;
+   private final long prefixMisses;
+   private final long cuts;
+   private final long cutWords;
+   private final int maxDepth;
+   private final long words;
+   private final long prepareNanos;
+   private final long searchNanos;
+
+   private SearchMetrics(Counters counters) {
+      nodes = counters.nodes;
+      prefixLookups = counters.prefixLookups;
+      prefixMisses = counters.prefixMisses;
+      cuts = counters.cuts;
+      cutWords = counters.cutWords;
+      maxDepth = counters.maxDepth;
+      words = counters.words;
+      prepareNanos = counters.prepareNanos;
+      searchNanos = counters.searchNanos;
+   }
+
+   /**
+    * Returns the number of board cells the searches stepped onto.
+    */
+   public long getNodes() {
+      return nodes;
+   }
+
+   /**
+    * Returns the number of times a search asked whether a string could
+    * lead anywhere.
+    */
+   public long getPrefixLookups() {
+      return prefixLookups;
+   }
+
+   /**
+    * Returns the number of prefix checks that ended a branch.
+    */
+   public long getPrefixMisses() {
+      return prefixMisses;
+   }
+
+   /**
+    * Returns the number of branches that matched the lexicon but were not
+    * followed, because no word below them could be long enough to score
+    * or longer than the path already was.
+    */
+   public long getCuts() {
+      return cuts;
+   }
+
+   /**
+    * Returns the number of lexicon words that start with the paths of the
+    * cut branches, which the searches never had to look at.
+    */
+   public long getCutWords() {
+      return cutWords;
+   }
+
+   /**
+    * Returns the most cells on any one path.
+    */
+   public int getMaxDepth() {
+      return maxDepth;
+   }
+
+   /**
+    * Returns the number of paths that spelled a word, counting a word once
+    * for every path it was found on.
+    */
+   public long getWords() {
+      return words;
+   }
+
+   /**
+    * Returns the nanoseconds spent getting ready to search, such as
+    * building the search structures or filtering the lexicon.
+    */
+   public long getPrepareNanos() {
+      return prepareNanos;
+   }
+
+   /**
+    * Returns the nanoseconds spent in the searches themselves.
+    */
+   public long getSearchNanos() {
+      return searchNanos;
+   }
+
+   @Override
+   public String toString() {
+      return "nodes=" + nodes + " prefixLookups=" + prefixLookups
+         + " prefixMisses=" + prefixMisses + " cuts=" + cuts
+         + " cutWords=" + cutWords
+         + " maxDepth=" + maxDepth
+         + " words=" + words + " prepareNanos=" + prepareNanos
+         + " searchNanos=" + searchNanos;
+   }
+
+   /**
+    * The running counts behind a snapshot. Each game keeps one and only
+    * touches it when ENABLED is true.
+    */
+   static final class Counters {
+      private long nodes;
+      private long prefixLookups;
+      private long prefixMisses;
+      private long cuts;
+      private long cutWords;
+      private int maxDepth;
+      private long words;
+      private long prepareNanos;
+      private long searchNanos;
+
+      // a search stepped onto a cell depth cells into its path
+      void node(int depth) {
+         nodes++;
+         if (depth > maxDepth) {
+            maxDepth = depth;
+         }
+      }
+
+      // a prefix check returned hit
+      boolean prefix(boolean hit) {
+         prefixLookups++;
+         if (!hit) {
+            prefixMisses++;
+         }
+         return hit;
+      }
+
+      // a branch holding words lexicon words was left unexplored
+      void cut(int words) {
+         cuts++;
+         cutWords += words;
+      }
+
+      // a path spelled a word
+      void word() {
+         words++;
+      }
+
+      void prepare(long nanos) {
+         prepareNanos += nanos;
+      }
+
+      void search(long nanos) {
+         searchNanos += nanos;
+      }
+
+      SearchMetrics snapshot() {
+         return new SearchMetrics(this);
+      }
+
+      void reset() {
+         nodes = 0;
+         prefixLookups = 0;
+         prefixMisses = 0;
+         cuts = 0;
+         cutWords = 0;
+         maxDepth = 0;
+         words = 0;
+         prepareNanos = 0;
+         searchNanos = 0;
+      }
+   }
+}
@@ -0,0 +1,201 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, least-recently-used cache of solved boards.
+ *
+ * Entries are keyed by the class of game that solved the board, the
+ * lexicon, the minimum word length and the board in canonical form: its
+ * tiles upper-cased, then of the eight rotations and reflections of the
+ * board, the one whose row-major tiles compare smallest. Turning or
+ * flipping a board keeps every path a path, so all eight variants have
+ * the same words and share one entry, as do boards that differ only in
+ * the case of their tiles. Games of different classes never share an
+ * entry, since they need not agree on such details as the case of the
+ * words they return.
+ *
+ * The cache is safe to share between threads and games.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class SolutionCache {
+   private final int capacity;
+   private final Map<Key, SortedSet<String>> entries;
+   private long hits;
+   private long misses;
+   private long evictions;
+
+   /**
+    * Creates a cache holding at most capacity solved boards.
+    *
+    * @param capacity the maximum number of entries
+    * @throws IllegalArgumentException if capacity < 1
+    */
+   public SolutionCache(int capacity) {
+      if (capacity < 1) {
+         throw new IllegalArgumentException();
+      }
+      this.capacity = capacity;
+      entries = new LinkedHashMap<Key, SortedSet<String>>(16, 0.75f, true) {
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<Key, SortedSet<String>> eldest) {
+            if (size() > SolutionCache.this.capacity) {
+               evictions++;
+               return true;
+            }
+            return false;
+         }
+      };
+   }
+
+   /**
+    * Returns the cached words for a board, solving and caching it first if
+    * neither it nor any rotation or reflection of it is cached. The solve
+    * runs outside the cache lock, so two threads missing on the same board
+    * may both solve it.
+    *
+    * @param solver the class of the game that solves the board
+    * @param lexicon names the lexicon the board is solved against
+    * @param letterArray the N^2 tiles of the board in row-major order
+    * @param minimumWordLength the minimum word length of the solve
+    * @param solve finds the words when the board is not cached
+    * @return an unmodifiable set of the words on the board
+    */
+   public SortedSet<String> get(Class<?> solver, String lexicon, String[] letterArray,
+         int minimumWordLength, Supplier<SortedSet<String>> solve) {
+      Key key = new Key(solver, lexicon, canonical(letterArray), minimumWordLength);
+      synchronized (this) {
+         SortedSet<String> words = entries.get(key);
+         if (words != null) {
+            hits++;
+            return words;
+         }
+         misses++;
+      }
+      SortedSet<String> words = Collections.unmodifiableSortedSet(
+         new TreeSet<String>(solve.get()));
+      synchronized (this) {
+         entries.put(key, words);
+      }
+      return words;
+   }
+
+   /**
+    * Removes every entry. The statistics are kept.
+    */
+   public synchronized void clear() {
+      entries.clear();
+   }
+
+   /** Returns the number of boards currently cached. */
+   public synchronized int size() {
+      return entries.size();
+   }
+
+   /** Returns the number of lookups answered from the cache. */
+   public synchronized long getHits() {
+      return hits;
+   }
+
+   /** Returns the number of lookups that had to solve the board. */
+   public synchronized long getMisses() {
+      return misses;
+   }
+
+   /** Returns the number of entries dropped to stay within capacity. */
+   public synchronized long getEvictions() {
+      return evictions;
+   }
+
+   /** Returns hits / (hits + misses), or 0 before the first lookup. */
+   public synchronized double getHitRate() {
+      long lookups = hits + misses;
+      return lookups == 0 ? 0 : (double) hits / lookups;
+   }
+
+   // the smallest of the eight rotations and reflections of the board
+   // with its tiles upper-cased
+   static String[] canonical(String[] letterArray) {
+      int n = (int) Math.sqrt(letterArray.length);
+      String[] upper = new String[letterArray.length];
+      for (int i = 0; i < upper.length; i++) {
+         upper[i] = letterArray[i].toUpperCase(Locale.ROOT);
+      }
+      String[] best = upper;
+      String[] next = new String[letterArray.length];
+      for (int symmetry = 1; symmetry < 8; symmetry++) {
+         for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+               next[row * n + col] = upper[source(symmetry, row, col, n)];
+            }
+         }
+         if (compare(next, best) < 0) {
+            best = next.clone();
+         }
+      }
+      return best;
+   }
+
+   // the cell that lands on (row, col) under one of the eight symmetries
+   private static int source(int symmetry, int row, int col, int n) {
+      int last = n - 1;
+      switch (symmetry) {
+         case 1: return col * n + (last - row);
+         case 2: return (last - row) * n + (last - col);
+         case 3: return (last - col) * n + row;
+         case 4: return row * n + (last - col);
+         case 5: return (last - row) * n + col;
+         case 6: return col * n + row;
+         default: return (last - col) * n + (last - row);
+      }
+   }
+
+   private static int compare(String[] a, String[] b) {
+      for (int i = 0; i < a.length; i++) {
+         int c = a[i].compareTo(b[i]);
+         if (c != 0) {
+            return c;
+         }
+      }
+      return 0;
+   }
+
+   private static final class Key {
+      private final Class<?> solver;
+      private final String lexicon;
+      private final String[] board;
+      private final int minimum;
+      private final int hash;
+
+      Key(Class<?> solver, String lexicon, String[] board, int minimum) {
+         this.solver = solver;
+         this.lexicon = lexicon;
+         this.board = board;
+         this.minimum = minimum;
+         hash = ((solver.hashCode() * 31 + lexicon.hashCode()) * 31
+            + Arrays.hashCode(board)) * 31 + minimum;
+      }
+
+      @Override
+      public boolean equals(Object other) {
+         if (!(other instanceof Key)) {
+            return false;
+         }
+         Key key = (Key) other;
+         return hash == key.hash && minimum == key.minimum && solver == key.solver
+            && lexicon.equals(key.lexicon) && Arrays.equals(board, key.board);
+      }
+
+      @Override
+      public int hashCode() {
+         return hash;
+      }
+   }
+}
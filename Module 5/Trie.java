@@ -0,0 +1,269 @@
+import java.io.BufferedReader;
+import java.io.DataOutput;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * A compact, read-only trie over an upper-cased word list.
+ *
+ * The trie is built from linked nodes and then frozen into flat arrays in
+ * breadth-first order. The edges leaving node i are stored sorted by
+ * letter in labels[firstEdge[i]] through labels[firstEdge[i + 1] - 1], so
+ * a child lookup is a scan of at most one alphabet's worth of chars.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class Trie implements Lexicon {
+   private final int[] firstEdge;
+   private final char[] labels;
+   private final int[] targets;
+   private final boolean[] words;
+   private final int size;
+
+   private Trie(Node root, int nodeCount, int edgeCount, int wordCount) {
+      firstEdge = new int[nodeCount + 1];
+      labels = new char[edgeCount];
+      targets = new int[edgeCount];
+      words = new boolean[nodeCount];
+      size = wordCount;
+
+      // number the nodes breadth first so ROOT is 0
+      Deque<Node> queue = new ArrayDeque<Node>();
+      queue.addLast(root);
+      int id = 0;
+      int edge = 0;
+      int next = 1;
+      while (!queue.isEmpty()) {
+         Node node = queue.removeFirst();
+         firstEdge[id] = edge;
+         words[id] = node.word;
+         for (int i = 0; i < node.count; i++) {
+            labels[edge] = node.letters[i];
+            targets[edge] = next++;
+            queue.addLast(node.kids[i]);
+            edge++;
+         }
+         id++;
+      }
+      firstEdge[nodeCount] = edge;
+   }
+
+   /**
+    * Builds a trie from the given words. Words are upper-cased; null and
+    * empty entries are ignored.
+    *
+    * @param source the words to store
+    * @return a trie holding every word in source
+    * @throws IllegalArgumentException if source is null
+    */
+   public static Trie of(Iterable<String> source) {
+      if (source == null) {
+         throw new IllegalArgumentException();
+      }
+      Builder builder = new Builder();
+      for (String word : source) {
+         builder.add(word);
+      }
+      return builder.build();
+   }
+
+   /**
+    * Loads a trie from a word list. The first word of each line in the
+    * file is added, exactly as the TreeSet lexicons read it.
+    *
+    * @param fileName the name of the file to be used as a lexicon
+    * @return a trie holding the words in the file
+    * @throws IllegalArgumentException if fileName is null.
+    * @throws IllegalArgumentException if file cannot be opened.
+    */
+   public static Trie load(String fileName) {
+      if (fileName == null) {
+         throw new IllegalArgumentException();
+      }
+      Builder builder = new Builder();
+      try (BufferedReader in = new BufferedReader(new FileReader(fileName))) {
+         String line;
+         while ((line = in.readLine()) != null) {
+            builder.add(firstToken(line));
+         }
+      }
+      catch (IOException e) {
+         throw new IllegalArgumentException();
+      }
+      return builder.build();
+   }
+
+   // the first whitespace-delimited token of line, or null if there is none
+   private static String firstToken(String line) {
+      int start = 0;
+      while (start < line.length() && Character.isWhitespace(line.charAt(start))) {
+         start++;
+      }
+      int end = start;
+      while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+         end++;
+      }
+      return start == end ? null : line.substring(start, end);
+   }
+
+   @Override
+   public int child(int node, char letter) {
+      char c = Character.toUpperCase(letter);
+      for (int e = firstEdge[node]; e < firstEdge[node + 1]; e++) {
+         if (labels[e] == c) {
+            return targets[e];
+         }
+         if (labels[e] > c) {
+            break;
+         }
+      }
+      return NONE;
+   }
+
+   @Override
+   public int letterMask(int node) {
+      int mask = 0;
+      for (int e = firstEdge[node]; e < firstEdge[node + 1]; e++) {
+         if (labels[e] >= 'A' && labels[e] <= 'Z') {
+            mask |= 1 << (labels[e] - 'A');
+         }
+      }
+      return mask;
+   }
+
+   @Override
+   public boolean isWord(int node) {
+      return words[node];
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   @Override
+   public void forEachWord(Consumer<? super String> action) {
+      forEachWord(ROOT, new StringBuilder(), action);
+   }
+
+   // passes the words below node, which is reached by prefix, in order
+   private void forEachWord(int node, StringBuilder prefix,
+         Consumer<? super String> action) {
+      if (words[node]) {
+         action.accept(prefix.toString());
+      }
+      for (int e = firstEdge[node]; e < firstEdge[node + 1]; e++) {
+         prefix.append(labels[e]);
+         forEachWord(targets[e], prefix, action);
+         prefix.setLength(prefix.length() - 1);
+      }
+   }
+
+   /**
+    * Returns the number of nodes in the trie.
+    */
+   public int nodeCount() {
+      return words.length;
+   }
+
+   /**
+    * Writes the trie in the compiled format read by MappedLexicon.
+    *
+    * @param out where the trie is written
+    * @throws IOException if out cannot be written
+    */
+   public void writeTo(DataOutput out) throws IOException {
+      out.writeInt(MappedLexicon.MAGIC);
+      out.writeInt(words.length);
+      out.writeInt(labels.length);
+      out.writeInt(size);
+      for (int edge : firstEdge) {
+         out.writeInt(edge);
+      }
+      for (int target : targets) {
+         out.writeInt(target);
+      }
+      for (char label : labels) {
+         out.writeChar(label);
+      }
+      for (boolean word : words) {
+         out.writeByte(word ? 1 : 0);
+      }
+   }
+
+   /**
+    * Collects words one at a time and freezes them into a Trie.
+    */
+   public static class Builder {
+      private Node root = new Node();
+      private int nodeCount = 1;
+      private int wordCount;
+
+      /**
+       * Adds a word. Null and empty words are ignored.
+       *
+       * @param word the word to add
+       * @return this builder
+       */
+      public Builder add(String word) {
+         if (word == null || word.isEmpty()) {
+            return this;
+         }
+         Node node = root;
+         for (int i = 0; i < word.length(); i++) {
+            char c = Character.toUpperCase(word.charAt(i));
+            Node next = node.get(c);
+            if (next == null) {
+               next = node.put(c);
+               nodeCount++;
+            }
+            node = next;
+         }
+         if (!node.word) {
+            node.word = true;
+            wordCount++;
+         }
+         return this;
+      }
+
+      /**
+       * Freezes the words added so far into a Trie.
+       */
+      public Trie build() {
+         return new Trie(root, nodeCount, nodeCount - 1, wordCount);
+      }
+   }
+
+   // a linked node used only while building; children are kept sorted
+   private static class Node {
+      private char[] letters = new char[2];
+      private Node[] kids = new Node[2];
+      private int count;
+      private boolean word;
+
+      Node get(char c) {
+         int i = Arrays.binarySearch(letters, 0, count, c);
+         return i >= 0 ? kids[i] : null;
+      }
+
+      Node put(char c) {
+         int i = -(Arrays.binarySearch(letters, 0, count, c) + 1);
+         if (count == letters.length) {
+            letters = Arrays.copyOf(letters, count * 2);
+            kids = Arrays.copyOf(kids, count * 2);
+         }
+         System.arraycopy(letters, i, letters, i + 1, count - i);
+         System.arraycopy(kids, i, kids, i + 1, count - i);
+         Node node = new Node();
+         letters[i] = c;
+         kids[i] = node;
+         count++;
+         return node;
+      }
+   }
+}
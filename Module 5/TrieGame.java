@@ -0,0 +1,408 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * A word search game whose lexicon is a Trie.
+ *
+ * The board search keeps its place in the trie as it walks, so extending
+ * the current path by one tile is a child lookup rather than a fresh
+ * prefix query against the whole word list.
+ *
+ * @author An Dinh (abd0060@auburn.edu)
+ *
+ */
+public class TrieGame implements WordSearchGame {
+   private Lexicon lexicon;
+   private BoardWalker walker;
+   private BatchSolver batchSolver;
+   //built from lexicon the first time a hint is asked for
+   private AnagramIndex anagrams;
+   //the last getAllScorableWords result for this board, or null
+   private Set<String> solved;
+   private int solvedMinimum;
+   //how getScoreForWords decided each word
+   private long cachedLookups;
+   private long freshSearches;
+   //the text getBoard last returned, or null once the board changes
+   private String boardText;
+   // the board in row-major order
+   private String[] tiles;
+   private BoardShape shape;
+
+   /**
+    * Creates a default board.
+    */
+   public TrieGame() {
+      tiles = new String[] {
+         "E", "E", "C", "A",
+         "A", "L", "E", "P",
+         "H", "N", "B", "O",
+         "Q", "T", "T", "Y"
+         };
+      shape = BoardShape.square(4);
+   }
+
+   /**
+    * Loads the lexicon into a Trie. The first word of each line in the
+    * text file is added. A file written by LexiconCompiler is memory
+    * mapped instead of parsed.
+    *
+    * @param fileName A string containing the name of the file to be opened.
+    * @throws IllegalArgumentException if fileName is null
+    * @throws IllegalArgumentException if fileName cannot be opened.
+    */
+   public void loadLexicon(String fileName) {
+      if (MappedLexicon.isCompiled(fileName)) {
+         lexicon = MappedLexicon.open(fileName);
+      }
+      else {
+         lexicon = Trie.load(fileName);
+      }
+      walker = new BoardWalker(lexicon);
+      walker.setBoard(tiles, shape);
+      batchSolver = new BatchSolver(lexicon);
+      anagrams = null;
+      solved = null;
+   }
+
+   /**
+    * Stores the incoming array of Strings in row-major order.
+    *
+    * @param letterArray This array of length N^2 stores the contents of the
+    *     game board in row-major order.
+    * @throws IllegalArgumentException if letterArray is null, or is  not
+    *     square.
+    */
+   public void setBoard(String[] letterArray) {
+      if (letterArray == null || Math.sqrt(letterArray.length) % 1 != 0) {
+         throw new IllegalArgumentException();
+      }
+      setBoard(letterArray, BoardShape.square((int) Math.sqrt(letterArray.length)));
+   }
+
+   /**
+    * Stores a board of any shape, such as a rectangular or wrapping one.
+    * Every other method then works on this board, with positions still
+    * numbered in row-major order.
+    *
+    * @param letterArray the tiles of the board in row-major order
+    * @param boardShape the layout of the board
+    * @throws IllegalArgumentException if letterArray or boardShape is null,
+    *     or if letterArray does not have one tile per cell of boardShape
+    */
+   public void setBoard(String[] letterArray, BoardShape boardShape) {
+      if (letterArray == null || boardShape == null
+            || letterArray.length != boardShape.cells()) {
+         throw new IllegalArgumentException();
+      }
+      shape = boardShape;
+      tiles = letterArray.clone();
+      boardText = null;
+      solved = null;
+      if (walker != null) {
+         walker.setBoard(tiles, shape);
+      }
+   }
+
+   /**
+    * Creates a String representation of the board, suitable for printing to
+    *   standard out.
+    */
+   public String getBoard() {
+      if (boardText == null) {
+         boardText = BoardText.render(tiles, shape.rows(), shape.cols());
+      }
+      return boardText;
+   }
+
+   /**
+    * Writes the board to out, streaming it unless it is already rendered.
+    *
+    * @param out where the board is written
+    * @throws IOException if out cannot be written
+    */
+   public void appendBoard(Appendable out) throws IOException {
+      if (boardText != null) {
+         out.append(boardText);
+      }
+      else {
+         BoardText.append(out, tiles, shape.rows(), shape.cols());
+      }
+   }
+
+   /**
+    * Retrieves all scorable words on the game board.
+    *
+    * @param minimumWordLength The minimum allowed length (i.e., number of
+    *     characters) for any word found on the board.
+    * @return java.util.SortedSet which contains all the words of minimum length
+    *     found on the game board and in the lexicon.
+    * @throws IllegalArgumentException if minimumWordLength < 1
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public SortedSet<String> getAllScorableWords(int minimumWordLength) {
+      if (minimumWordLength < 1) {
+         throw new IllegalArgumentException();
+      }
+      if (lexicon == null) {
+         throw new IllegalStateException();
+      }
+      SortedSet<String> found = new TreeSet<String>();
+      walker.solve(minimumWordLength, found);
+      solved = new HashSet<String>(found);
+      solvedMinimum = minimumWordLength;
+      return found;
+   }
+
+   /**
+    * Retrieves all scorable words on the game board together with a path
+    * for each, in one search. Each path is the row-major positions of the
+    * tiles that spell the word, in order, as isOnBoard would list them.
+    * When a word can be spelled more than one way, the first path found
+    * is kept.
+    *
+    * @param minimumWordLength The minimum allowed length (i.e., number of
+    *     characters) for any word found on the board.
+    * @return a map from each scorable word to one of its paths
+    * @throws IllegalArgumentException if minimumWordLength < 1
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public SortedMap<String, int[]> getAllScorableWordPaths(int minimumWordLength) {
+      if (minimumWordLength < 1) {
+         throw new IllegalArgumentException();
+      }
+      if (lexicon == null) {
+         throw new IllegalStateException();
+      }
+      SortedMap<String, int[]> found = new TreeMap<String, int[]>();
+      walker.solve(minimumWordLength, (letters, length, path, cells) -> {
+         found.putIfAbsent(new String(letters, 0, length), Arrays.copyOf(path, cells));
+         return true;
+      });
+      return found;
+   }
+
+   /**
+    * Passes each scorable word on the game board to consumer as soon as the
+    * search finds it, rather than waiting for the whole board. Words follow
+    * the same rules as getAllScorableWords and each is passed only once,
+    * in the order they are found. Returning false from consumer stops the
+    * search.
+    *
+    * @param minimumWordLength The minimum allowed length (i.e., number of
+    *     characters) for any word found on the board.
+    * @param consumer receives the words; returns false to stop the search
+    * @return true if the whole board was searched, false if consumer
+    *     stopped it early
+    * @throws IllegalArgumentException if minimumWordLength < 1 or consumer
+    *     is null
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public boolean forEachScorableWord(int minimumWordLength, Predicate<String> consumer) {
+      if (minimumWordLength < 1 || consumer == null) {
+         throw new IllegalArgumentException();
+      }
+      if (lexicon == null) {
+         throw new IllegalStateException();
+      }
+      Set<String> seen = new HashSet<String>();
+      return walker.solve(minimumWordLength,
+         word -> !seen.add(word) || consumer.test(word));
+   }
+
+   /**
+    * Retrieves all scorable words on each of the given boards, solving
+    * them concurrently against the loaded lexicon. The current board is
+    * not changed.
+    *
+    * @param boards the boards to solve, each an array of N^2 tiles in
+    *     row-major order
+    * @param minimumWordLength The minimum allowed length (i.e., number of
+    *     characters) for any word found on a board.
+    * @return the words found on each board, in the same order as boards
+    * @throws IllegalArgumentException if boards is null, if any board is
+    *     null or not square, or if minimumWordLength < 1
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public List<SortedSet<String>> getAllScorableWords(List<String[]> boards,
+         int minimumWordLength) {
+      if (lexicon == null) {
+         throw new IllegalStateException();
+      }
+      return batchSolver.solveAll(boards, minimumWordLength);
+   }
+
+   /**
+    * Computes the cummulative score for the scorable words in the given set.
+    * If getAllScorableWords has already been called for this board with a
+    * minimum no larger than minimumWordLength, the words are checked
+    * against that result instead of searching the board for each one.
+    *
+    * @param words The set of words that are to be scored.
+    * @param minimumWordLength The minimum number of characters required per word
+    * @return the cummulative score of all scorable words in the set
+    * @throws IllegalArgumentException if minimumWordLength < 1
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public int getScoreForWords(SortedSet<String> words, int minimumWordLength) {
+      if (minimumWordLength < 1) {
+         throw new IllegalArgumentException();
+      }
+      if (lexicon == null) {
+         throw new IllegalStateException();
+      }
+      int score = 0;
+      if (solved != null && solvedMinimum <= minimumWordLength) {
+         for (String word : words) {
+            cachedLookups++;
+            if (word.length() >= minimumWordLength
+                  && solved.contains(word.toUpperCase(Locale.ROOT))) {
+               score += (word.length() - (minimumWordLength - 1));
+            }
+         }
+         return score;
+      }
+      int[] path = new int[tiles.length];
+      for (String word : words) {
+         if (word.length() >= minimumWordLength && isValidWord(word)) {
+            freshSearches++;
+            if (isOnBoard(word, path) > 0) {
+               score += (word.length() - (minimumWordLength - 1));
+            }
+         }
+      }
+      return score;
+   }
+
+   /**
+    * Returns how many words getScoreForWords has scored from a cached
+    * getAllScorableWords result.
+    */
+   public long getCachedLookups() {
+      return cachedLookups;
+   }
+
+   /**
+    * Returns how many words getScoreForWords has searched the board for.
+    * Words too short or not in the lexicon are rejected without a search
+    * and are not counted.
+    */
+   public long getFreshSearches() {
+      return freshSearches;
+   }
+
+   /**
+    * Determines if the given word is in the lexicon.
+    *
+    * @param wordToCheck The word to validate
+    * @return true if wordToCheck appears in lexicon, false otherwise.
+    * @throws IllegalArgumentException if wordToCheck is null.
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public boolean isValidWord(String wordToCheck) {
+      if (wordToCheck == null) {
+         throw new IllegalArgumentException();
+      }
+      if (lexicon == null) {
+         throw new IllegalStateException();
+      }
+      return lexicon.contains(wordToCheck);
+   }
+
+   /**
+    * Determines if there is at least one word in the lexicon with the
+    * given prefix.
+    *
+    * @param prefixToCheck The prefix to validate
+    * @return true if prefixToCheck appears in lexicon, false otherwise.
+    * @throws IllegalArgumentException if prefixToCheck is null.
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public boolean isValidPrefix(String prefixToCheck) {
+      if (prefixToCheck == null) {
+         throw new IllegalArgumentException();
+      }
+      if (lexicon == null) {
+         throw new IllegalStateException();
+      }
+      return lexicon.hasPrefix(prefixToCheck);
+   }
+
+   /**
+    * Finds the dictionary words that can be made from the letters of the
+    * given tiles, in any order, for hints. Letters are counted without
+    * regard to tiles, so a word may split a multi-letter tile.
+    *
+    * @param tiles the tiles to draw letters from
+    * @param minimumWordLength the fewest characters a word may have
+    * @return the words, upper-cased and sorted
+    * @throws IllegalArgumentException if tiles is null or holds null, or if
+    *     minimumWordLength < 1.
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public SortedSet<String> wordsFromTiles(String[] tiles, int minimumWordLength) {
+      if (lexicon == null) {
+         throw new IllegalStateException();
+      }
+      if (anagrams == null) {
+         anagrams = AnagramIndex.of(lexicon);
+      }
+      return anagrams.wordsFrom(tiles, minimumWordLength);
+   }
+
+   /**
+    * Determines if the given word is in on the game board. If so, it returns
+    * the path that makes up the word.
+    *
+    * @param wordToCheck The word to validate
+    * @return java.util.List containing java.lang.Integer objects with  the path
+    *     that makes up the word on the game board, in row-major positions.
+    *     If word is not on the game board, return an empty list.
+    * @throws IllegalArgumentException if wordToCheck is null.
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public List<Integer> isOnBoard(String wordToCheck) {
+      int[] path = new int[tiles.length];
+      int length = isOnBoard(wordToCheck, path);
+      List<Integer> list = new ArrayList<Integer>();
+      for (int i = 0; i < length; i++) {
+         list.add(path[i]);
+      }
+      return list;
+   }
+
+   /**
+    * Determines if the given word is on the game board, writing the path
+    * that makes up the word into path instead of building a list.
+    *
+    * @param wordToCheck The word to validate
+    * @param path receives the row-major positions of the path in
+    *     path[0] onward; it must hold at least as many positions as the
+    *     word has characters, or as the board has cells if that is fewer.
+    * @return the number of positions written to path, or -1 if the word
+    *     is not on the game board.
+    * @throws IllegalArgumentException if wordToCheck or path is null, or
+    *     path is too short.
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public int isOnBoard(String wordToCheck, int[] path) {
+      if (wordToCheck == null || path == null
+            || path.length < Math.min(wordToCheck.length(), tiles.length)) {
+         throw new IllegalArgumentException();
+      }
+      if (lexicon == null) {
+         throw new IllegalStateException();
+      }
+      return walker.findPath(wordToCheck, path);
+   }
+}
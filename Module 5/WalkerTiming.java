@@ -0,0 +1,62 @@
+/**
+ * WalkerTiming.java
+ * Compares the running time of Game's Grid search with the
+ * allocation-free BoardWalker on the same random boards.
+ *
+ * Usage: java WalkerTiming lexicon-file [N] [boards]
+ */
+public class WalkerTiming {
+
+   // untimed solves to let the JIT compile both searches
+   private static final int WARMUP_RUNS = 3;
+
+   // number of timing runs to make
+   private static final int NUM_RUNS = 10;
+
+   private static final int MIN_LENGTH = 3;
+
+   private static final long SEED = 2210L;
+
+   // 1.0E6 ns per millisecond
+   private static final double MILLIS = 1_000_000d;
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      if (args.length < 1) {
+         System.out.println("Usage: java WalkerTiming lexicon-file [N] [boards]");
+         return;
+      }
+      int n = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+      int numBoards = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+      Game game = new Game();
+      game.loadLexicon(args[0]);
+      String[][] boards = new BoardGenerator(SEED).boards(n, numBoards);
+
+      for (Game.SolveMode mode : Game.SolveMode.values()) {
+         game.setSolveMode(mode);
+         for (int i = 0; i < WARMUP_RUNS; i++) {
+            solveAll(game, boards);
+         }
+         double avgTime = 0d;
+         int words = 0;
+         for (int i = 0; i < NUM_RUNS; i++) {
+            long start = System.nanoTime();
+            words = solveAll(game, boards);
+            avgTime += System.nanoTime() - start;
+         }
+         avgTime = avgTime / NUM_RUNS / numBoards / MILLIS;
+         System.out.printf("%-8s %dx%d: %8.3f ms per board (%d words)\n",
+            mode, n, n, avgTime, words);
+      }
+   }
+
+   private static int solveAll(Game game, String[][] boards) {
+      int words = 0;
+      for (String[] board : boards) {
+         game.setBoard(board);
+         words += game.getAllScorableWords(MIN_LENGTH).size();
+      }
+      return words;
+   }
+}
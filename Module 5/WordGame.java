@@ -2,12 +2,15 @@ import java.io.File;
 import java.lang.Math;
 import java.util.Scanner;
 import java.util.List;
+import java.util.Locale;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.Arrays;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 /**
  * Creates a word search games from WordSearchGame.
  *
@@ -15,20 +18,47 @@ import java.io.FileNotFoundException;
  *
  */
 public class WordGame implements WordSearchGame {
-   private TreeSet<String> lexicon;
+   //the lexicon, upper-cased and packed
+   private PackedLexicon lexicon;
    private String[][] board;
+   //the text getBoard last returned, or null once the board changes
+   private String boardText;
    //track visited positions
    private boolean[][] visited;
    private int row;
    private int column;
    private Position position; 
-   private static int MAX_NEIGHBORS = 8;
+   //neighbors of each position, shared per board size
+   private Adjacency adjacency;
    //path for all words
    private ArrayList<Position> path2;
    //track path on board
    private ArrayList<Integer> path1;
    private SortedSet<String> allPossibleWords;
    private String currentWord;
+   //the words that could be on this board, refilled for each pruned search
+   private PackedLexicon.Subset boardWords;
+   //whether dfs2 searches boardWords rather than all of lexicon
+   private boolean searchPruned;
+   //characters on the whole board, the most any path can spell
+   private int boardChars;
+   //the lexicon filed by letters, built the first time it is needed
+   private AnagramIndex anagrams;
+   //off by default: building the filtered set costs more than dfs2 saves
+   private boolean pruneLexicon = false;
+   //below this many cells the filter is never worth building
+   private static final int PRUNE_MIN_CELLS = 25;
+   //how long the last getAllScorableWords spent filtering and searching
+   private long filterTime;
+   private long searchTime;
+   //the last getAllScorableWords result for this board, upper-cased, or null
+   private Set<String> solved;
+   private int solvedMinimum;
+   //how getScoreForWords decided each word
+   private long cachedLookups;
+   private long freshSearches;
+   //what dfs and dfs2 have done, counted only when metrics are on
+   private final SearchMetrics.Counters counters = new SearchMetrics.Counters();
  
  /** 
    * Create a default board.
@@ -42,6 +72,9 @@ public class WordGame implements WordSearchGame {
          {"Q", "T", "T", "Y"}
          };
       board = defaultBoard;
+      row = board.length;
+      column = board.length;
+      adjacency = Adjacency.of(row);
       markAllUnvisited();
    }  
  /**
@@ -55,13 +88,16 @@ public class WordGame implements WordSearchGame {
       if (fileName == null) {
          throw new IllegalArgumentException();
       }
-      lexicon = new TreeSet<String>();
+      List<String> words = new ArrayList<String>();
+      anagrams = null;
+      boardWords = null;
+      solved = null;
       
       // check the file
       try {
          Scanner scan = new Scanner(new File(fileName));
          while (scan.hasNext()) {
-            lexicon.add(scan.next().toUpperCase());
+            words.add(scan.next());
             if (scan.hasNextLine()) {
                scan.nextLine();
             }
@@ -73,6 +109,7 @@ public class WordGame implements WordSearchGame {
       catch (FileNotFoundException e) {
          throw new IllegalArgumentException();
       }
+      lexicon = PackedLexicon.of(words);
    }
    
    /**
@@ -104,6 +141,11 @@ public class WordGame implements WordSearchGame {
             loc++;
          }
       }
+      row = n;
+      column = n;
+      adjacency = Adjacency.of(n);
+      boardText = null;
+      solved = null;
       markAllUnvisited();
    }
    
@@ -113,17 +155,25 @@ public class WordGame implements WordSearchGame {
     *   implementing classes should have a default board.
     */
    public String getBoard() {
-      String boardOut = "";
-      for (String[] row : board) {
-         boardOut += "[";
-         for (String value : row) {
-            boardOut += (value + ", ");
-         }
-         // remove the last comma and space
-         boardOut = boardOut.substring(0, boardOut.length() - 2);
-         boardOut += "]\n";
+      if (boardText == null) {
+         boardText = BoardText.render(board);
+      }
+      return boardText;
+   }
+
+   /**
+    * Writes the board to out, streaming it unless it is already rendered.
+    *
+    * @param out where the board is written
+    * @throws IOException if out cannot be written
+    */
+   public void appendBoard(Appendable out) throws IOException {
+      if (boardText != null) {
+         out.append(boardText);
+      }
+      else {
+         BoardText.append(out, board);
       }
-      return boardOut;
    }
    
 /**
@@ -144,35 +194,164 @@ public class WordGame implements WordSearchGame {
       if (lexicon == null) {
          throw new IllegalStateException();
       }
-      path2 = new ArrayList<Position>();
+      long start = System.nanoTime();
+      searchPruned = pruneLexicon && row * column >= PRUNE_MIN_CELLS;
+      if (searchPruned) {
+         fillBoardWords(minimumWordLength);
+      }
+      filterTime = System.nanoTime() - start;
+      
+      boardChars = 0;
+      for (String[] tiles : board) {
+         for (String tile : tiles) {
+            boardChars += tile.length();
+         }
+      }
       allPossibleWords = new TreeSet<String>();
       currentWord = "";
+      // isOnBoard can leave its path marked
+      markAllUnvisited();
       
       for (int i = 0; i < column; i++) {
          for (int j = 0; j < row; j++) {
             currentWord = board[i][j];
-            if (isValidWord(currentWord) && currentWord.length() >= minimumWordLength) {
+            if (isSearchWord(currentWord) && currentWord.length() >= minimumWordLength) {
                allPossibleWords.add(currentWord);
+               if (SearchMetrics.ENABLED) {
+                  counters.word();
+               }
             }
-            if (isValidPrefix(currentWord)) {
-               Position attempt = new Position(i, j);
-               path2.add(attempt);
-               
-               dfs2(i, j, minimumWordLength);
-               // remove if it fails
-               path2.remove(attempt);
+            int longest = searchLongest(currentWord);
+            if (counted(longest >= 0)
+                  && canGrow(currentWord, longest, minimumWordLength)) {
+               dfs2(i, j, minimumWordLength, 1);
             }
          }
       }
+      searchTime = System.nanoTime() - start - filterTime;
+      if (SearchMetrics.ENABLED) {
+         counters.prepare(filterTime);
+         counters.search(searchTime);
+      }
+      solved = new HashSet<String>();
+      for (String word : allPossibleWords) {
+         solved.add(word.toUpperCase(Locale.ROOT));
+      }
+      solvedMinimum = minimumWordLength;
       return allPossibleWords;
    }
+   
+   /**
+    * Turns on or off cutting the lexicon down to the words that could be
+    * on the board before getAllScorableWords searches it. It is off by
+    * default, since on the boards PruningTiming measures the filter costs
+    * more than the search it saves, and it is only used on boards of 5x5
+    * or more. Either way the same words are found.
+    *
+    * @param prune true to filter the lexicon for each board
+    */
+   public void setPruneLexicon(boolean prune) {
+      pruneLexicon = prune;
+   }
+   
+   /**
+    * Returns the nanoseconds the last getAllScorableWords spent filtering
+    * the lexicon.
+    */
+   public long getFilterTime() {
+      return filterTime;
+   }
+   
+   /**
+    * Returns the nanoseconds the last getAllScorableWords spent searching
+    * the board.
+    */
+   public long getSearchTime() {
+      return searchTime;
+   }
+   
+   /**
+    * Returns what dfs and dfs2 have done since this game was made or last
+    * reset. Everything is zero unless the JVM was started with
+    * -Dwordsearch.metrics=true.
+    *
+    * @return a snapshot of the search counters
+    */
+   public SearchMetrics getSearchMetrics() {
+      return counters.snapshot();
+   }
+   
+   /**
+    * Sets the search counters back to zero.
+    */
+   public void resetSearchMetrics() {
+      counters.reset();
+   }
+   
+   // passes a prefix check through, counting it when metrics are on
+   private boolean counted(boolean hit) {
+      return SearchMetrics.ENABLED ? counters.prefix(hit) : hit;
+   }
+   
+   // marks in boardWords the words the letters on the board could spell:
+   // no longer than all the tiles together and no letter used more
+   // often than it appears on the board
+   private void fillBoardWords(int min) {
+      int[] available = new int[26];
+      int letters = 0;
+      for (String[] tiles : board) {
+         for (String tile : tiles) {
+            for (int k = 0; k < tile.length(); k++) {
+               char c = Character.toUpperCase(tile.charAt(k));
+               if (c >= 'A' && c <= 'Z') {
+                  available[c - 'A']++;
+               }
+               letters++;
+            }
+         }
+      }
+      if (boardWords == null) {
+         boardWords = lexicon.subset();
+      }
+      boardWords.clear();
+      // characters other than A-Z are not counted, so such words are kept
+      anagrams().forEachIndex(available, min, letters, boardWords::add);
+   }
+   
+   // isValidWord against the words dfs2 searches
+   private boolean isSearchWord(String word) {
+      return searchPruned ? boardWords.contains(word) : lexicon.contains(word);
+   }
+   
+   // isValidPrefix against the words dfs2 searches, giving -1 for a miss
+   // and otherwise a bound on the longest word the prefix could lead to
+   private int searchLongest(String prefix) {
+      return searchPruned ? boardWords.longestWithPrefix(prefix)
+         : lexicon.longestWithPrefix(prefix);
+   }
+   
+   // PackedLexicon.canGrow for the path spelling prefix; a cut is
+   // counted with the search words below it when metrics are on
+   private boolean canGrow(String prefix, int longest, int min) {
+      if (PackedLexicon.canGrow(prefix.length(), longest, boardChars, min)) {
+         return true;
+      }
+      if (SearchMetrics.ENABLED) {
+         counters.cut(searchPruned ? boardWords.countWithPrefix(prefix)
+            : lexicon.countWithPrefix(prefix));
+      }
+      return false;
+   }
 
 /**
    * Computes the cummulative score for the scorable words in the given set.
    * To be scorable, a word must (1) have at least the minimum number of characters,
    * (2) be in the lexicon, and (3) be on the board. Each scorable word is
    * awarded one point for the minimum number of characters, and one point for 
-   * each character beyond the minimum number.
+   * each character beyond the minimum number. If getAllScorableWords has
+   * already been called for this board with a minimum no larger than
+   * minimumWordLength, the words are checked against that result instead
+   * of searching the board for each one.
    *
    * @param words The set of words that are to be scored.
    * @param minimumWordLength The minimum number of characters required per word
@@ -189,14 +368,43 @@ public class WordGame implements WordSearchGame {
       }
       
       int score = 0;
+      if (solved != null && solvedMinimum <= minimumWordLength) {
+         for (String word : words) {
+            cachedLookups++;
+            if (word.length() >= minimumWordLength
+                  && solved.contains(word.toUpperCase(Locale.ROOT))) {
+               score += (word.length() - (minimumWordLength - 1));
+            }
+         }
+         return score;
+      }
       for (String word : words) {
-         if ((word.length() >= minimumWordLength && isValidWord(word))
-               && isOnBoard(word).size() > 0) {
-            score += (word.length() - (minimumWordLength - 1));
+         if (word.length() >= minimumWordLength && isValidWord(word)) {
+            freshSearches++;
+            if (isOnBoard(word).size() > 0) {
+               score += (word.length() - (minimumWordLength - 1));
+            }
          }
       }
       return score;
    }
+   
+   /**
+    * Returns how many words getScoreForWords has scored from a cached
+    * getAllScorableWords result.
+    */
+   public long getCachedLookups() {
+      return cachedLookups;
+   }
+   
+   /**
+    * Returns how many words getScoreForWords has searched the board for.
+    * Words too short or not in the lexicon are rejected without a search
+    * and are not counted.
+    */
+   public long getFreshSearches() {
+      return freshSearches;
+   }
 
 /**
     * Determines if the given word is in the lexicon.
@@ -214,7 +422,7 @@ public class WordGame implements WordSearchGame {
          throw new IllegalStateException();
       }
       
-      return (lexicon.contains(wordToCheck.toUpperCase()));
+      return lexicon.contains(wordToCheck);
    }
 
 /**
@@ -234,12 +442,35 @@ public class WordGame implements WordSearchGame {
          throw new IllegalStateException();
       }
       
-      String prefix = prefixToCheck.toUpperCase();
-      String word = lexicon.ceiling(prefix);
-      if (word.startsWith(prefixToCheck) || word.equals(prefixToCheck)) {
-         return true;
+      return lexicon.hasPrefix(prefixToCheck);
+   }
+   
+   /**
+    * Finds the dictionary words that can be made from the letters of the
+    * given tiles, in any order, for hints. Letters are counted without
+    * regard to tiles, so a word may split a multi-letter tile.
+    *
+    * @param tiles the tiles to draw letters from
+    * @param minimumWordLength the fewest characters a word may have
+    * @return the words, upper-cased and sorted
+    * @throws IllegalArgumentException if tiles is null or holds null, or if
+    *     minimumWordLength < 1.
+    * @throws IllegalStateException if loadLexicon has not been called.
+    */
+   public SortedSet<String> wordsFromTiles(String[] tiles, int minimumWordLength) {
+      if (lexicon == null) {
+         throw new IllegalStateException();
       }
-      return false;
+      return anagrams().wordsFrom(tiles, minimumWordLength);
+   }
+   
+   // the anagram index of lexicon, built the first time it is needed;
+   // it is built from lexicon so its positions are lexicon positions
+   private AnagramIndex anagrams() {
+      if (anagrams == null) {
+         anagrams = AnagramIndex.of(lexicon);
+      }
+      return anagrams;
    }
    
 /**
@@ -263,9 +494,21 @@ public class WordGame implements WordSearchGame {
          throw new IllegalStateException();
       }
       
+      long start = SearchMetrics.ENABLED ? System.nanoTime() : 0L;
+      List<Integer> path = findPath(wordToCheck.toUpperCase());
+      if (SearchMetrics.ENABLED) {
+         counters.search(System.nanoTime() - start);
+         if (!path.isEmpty()) {
+            counters.word();
+         }
+      }
+      return path;
+   }
+   
+   // the path that spells wordToCheck, which is upper case, or an empty list
+   private List<Integer> findPath(String wordToCheck) {
       path1 = new ArrayList<Integer>();
       path2 = new ArrayList<Position>();
-      wordToCheck = wordToCheck.toUpperCase();
       currentWord = "";
       
       for (int i = 0; i < column; i++) {
@@ -322,44 +565,12 @@ public class WordGame implements WordSearchGame {
          this.x = x;
          this.y = y;
       }
-      // get the neighbors of this position.
-      public Position[] neighbors() {
-         Position[] nbrs = new Position[MAX_NEIGHBORS];
-         int count = 0;
-         Position p;
-         for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-               if (!((i == 0) && (j == 0))) {
-                  p = new Position(x + i, y + j);
-                  if (isValid(p)) {
-                     nbrs[count++] = p;
-                  }
-               }
-            }
-         }
-         return Arrays.copyOf(nbrs, count);
-      }
-      
       @Override
       public String toString() {
          return "(" + x + ", " + y + ")";
       }
    }
    
-   /**
-    * Check if the position is valid.
-    * @param p the position
-    */
-   private boolean isValid(Position p) {
-      return (p.x >= 0) && (p.x < row) && (p.y >= 0) && (p.y < column);
-   }
-   /**
-    * check if the position is visited.
-    * @param p the position
-    */
-   private boolean isVisited(Position p) {
-      return visited[p.x][p.y];
-   }
    // mark the position visited
    private void visit (Position p) {
       visited[p.x][p.y] = true;
@@ -375,13 +586,18 @@ public class WordGame implements WordSearchGame {
     * @param wordCheck word to check
     */
    private void dfs(int x, int y, String wordCheck) {
-      Position start =  new Position(x, y);
+      int cell = x * row + y;
+      if (SearchMetrics.ENABLED) {
+         counters.node(path2.size());
+      }
       markAllUnvisited();
       markPathVisited();
-      for (Position p : start.neighbors()) {
-         if (!isVisited(p)) {
+      for (int k = adjacency.start(cell); k < adjacency.end(cell); k++) {
+         int next = adjacency.get(k);
+         if (!visited[next / row][next % row]) {
+            Position p = new Position(next / row, next % row);
             visit(p);
-            if (wordCheck.startsWith(currentWord + board[p.x][p.y])) {
+            if (counted(wordCheck.startsWith(currentWord + board[p.x][p.y]))) {
                currentWord += board[p.x][p.y];
                path2.add(p);
                dfs(p.x, p.y, wordCheck);
@@ -400,33 +616,45 @@ public class WordGame implements WordSearchGame {
       markPathVisited();
    }
    /**
-    * Depth first search for word has minimum length
+    * Depth first search for word has minimum length. The cells on the
+    * current path are marked in visited, and each is cleared again on the
+    * way back, so nothing is allocated per step.
     * @param x x value
     * @param y y value
     * @param min minimum length
+    * @param depth cells on the path, counting (x, y)
     */
-   private void dfs2(int x, int y, int min) {
-      Position start = new Position(x, y);
-      markAllUnvisited();
-      markPathVisited();
-      for (Position p : start.neighbors()) {
-         if (!isVisited(p)) {
-            visit(p);
-            if (isValidPrefix(currentWord + board[p.x][p.y])) {
-               currentWord += board[p.x][p.y];
-               path2.add(p);
-               if (isValidWord(currentWord) && currentWord.length() >= min) {
-                  allPossibleWords.add(currentWord);
+   private void dfs2(int x, int y, int min, int depth) {
+      int cell = x * row + y;
+      if (SearchMetrics.ENABLED) {
+         counters.node(depth);
+      }
+      visited[x][y] = true;
+      String prefix = currentWord;
+      for (int k = adjacency.start(cell); k < adjacency.end(cell); k++) {
+         int next = adjacency.get(k);
+         int nextX = next / row;
+         int nextY = next % row;
+         if (!visited[nextX][nextY]) {
+            String word = prefix + board[nextX][nextY];
+            // the prefix check, and the longest word it could lead to
+            int longest = searchLongest(word);
+            if (counted(longest >= 0)) {
+               if (isSearchWord(word) && word.length() >= min) {
+                  allPossibleWords.add(word);
+                  if (SearchMetrics.ENABLED) {
+                     counters.word();
+                  }
+               }
+               if (canGrow(word, longest, min)) {
+                  currentWord = word;
+                  dfs2(nextX, nextY, min, depth + 1);
+                  // backtrack to this cell's word
+                  currentWord = prefix;
                }
-               dfs2(p.x, p.y, min);
-                // backtrack and remove last part of currentWord
-               path2.remove(p);
-               int end = currentWord.length() - board[p.x][p.y].length();
-               currentWord = currentWord.substring(0, end);
             }
          }
       }
-      markAllUnvisited();
-      markPathVisited();
+      visited[x][y] = false;
    }
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * WordSearchBenchmark.java
+ * Measures the throughput of the WordSearchGame implementations so a
+ * slowdown shows up before it ships.
+ *
+ * Each operation is run untimed for a warmup period and then as many
+ * times as fit in the measurement period. The report gives operations
+ * per second and bytes allocated per operation on the measuring thread.
+ * Boards are seeded, so runs on the same lexicon are comparable.
+ *
+ * Usage: java WordSearchBenchmark lexicon-file [sizes, e.g. 4,8,12,16,20]
+ */
+public class WordSearchBenchmark {
+
+   private static final long WARMUP_NANOS = 500_000_000L;
+   private static final long MEASURE_NANOS = 1_000_000_000L;
+   private static final int BOARDS_PER_SIZE = 8;
+   private static final int QUERIES = 200;
+   private static final int MIN_LENGTH = 3;
+   private static final long SEED = 2210L;
+
+   // keeps results reachable so the JIT cannot drop the work
+   private static int sink;
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      if (args.length < 1) {
+         System.out.println("Usage: java WordSearchBenchmark lexicon-file [sizes]");
+         return;
+      }
+      String lexicon = args[0];
+      int[] sizes = {4, 8, 12, 16, 20};
+      if (args.length > 1) {
+         String[] parts = args[1].split(",");
+         sizes = new int[parts.length];
+         for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim());
+         }
+      }
+
+      List<String> names = new ArrayList<String>();
+      List<Supplier<WordSearchGame>> games = new ArrayList<Supplier<WordSearchGame>>();
+      names.add("Game");
+      games.add(Game::new);
+      names.add("WordGame");
+      games.add(WordGame::new);
+      names.add("TrieGame");
+      games.add(TrieGame::new);
+
+      System.out.printf("%-9s %-20s %-6s %5s %14s %14s\n",
+         "game", "operation", "tiles", "N", "ops/s", "B/op");
+      for (int g = 0; g < games.size(); g++) {
+         Supplier<WordSearchGame> factory = games.get(g);
+         String name = names.get(g);
+
+         report(name, "loadLexicon", "-", 0, measure(() -> {
+            WordSearchGame game = factory.get();
+            game.loadLexicon(lexicon);
+            return game.isValidWord("A") ? 1 : 0;
+         }));
+
+         WordSearchGame game = factory.get();
+         game.loadLexicon(lexicon);
+         for (boolean multi : new boolean[] {false, true}) {
+            String tiles = multi ? "multi" : "single";
+            for (int n : sizes) {
+               BoardGenerator generator = new BoardGenerator(SEED + n);
+               if (multi) {
+                  generator.multiTiles(BoardGenerator.MULTI_TILES, 8);
+               }
+               String[][] boards = generator.boards(n, BOARDS_PER_SIZE);
+               List<String> words = queries(game, boards[0]);
+               int[] next = new int[1];
+
+               report(name, "getAllScorableWords", tiles, n, measure(() -> {
+                  game.setBoard(boards[next[0]++ % boards.length]);
+                  return game.getAllScorableWords(MIN_LENGTH).size();
+               }));
+
+               game.setBoard(boards[0]);
+               report(name, "isOnBoard", tiles, n, measure(() ->
+                  game.isOnBoard(words.get(next[0]++ % words.size())).size()));
+
+               report(name, "isValidPrefix", tiles, n, measure(() ->
+                  game.isValidPrefix(prefix(words.get(next[0]++ % words.size()))) ? 1 : 0));
+            }
+         }
+      }
+      if (sink == 42) {
+         System.out.println();
+      }
+   }
+
+   // words on the board, padded with strings that are not, to query with
+   private static List<String> queries(WordSearchGame game, String[] board) {
+      game.setBoard(board);
+      List<String> words = new ArrayList<String>(game.getAllScorableWords(MIN_LENGTH));
+      Random rng = new Random(SEED);
+      while (words.size() < QUERIES) {
+         StringBuilder word = new StringBuilder();
+         int length = MIN_LENGTH + rng.nextInt(4);
+         for (int i = 0; i < length; i++) {
+            word.append(BoardGenerator.ENGLISH.charAt(
+               rng.nextInt(BoardGenerator.ENGLISH.length())));
+         }
+         words.add(word.toString());
+      }
+      return words;
+   }
+
+   private static String prefix(String word) {
+      return word.substring(0, (word.length() + 1) / 2);
+   }
+
+   // returns {ops per second, bytes allocated per op}
+   private static double[] measure(IntSupplier operation) {
+      long end = System.nanoTime() + WARMUP_NANOS;
+      do {
+         sink += operation.getAsInt();
+      } while (System.nanoTime() < end);
+
+      long before = allocatedBytes();
+      long ops = 0;
+      long start = System.nanoTime();
+      long elapsed;
+      do {
+         sink += operation.getAsInt();
+         ops++;
+         elapsed = System.nanoTime() - start;
+      } while (elapsed < MEASURE_NANOS);
+      long after = allocatedBytes();
+      double perOp = before < 0 ? -1 : (double) (after - before) / ops;
+      return new double[] {ops * 1_000_000_000d / elapsed, perOp};
+   }
+
+   private static long allocatedBytes() {
+      ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+      if (threads instanceof com.sun.management.ThreadMXBean) {
+         return ((com.sun.management.ThreadMXBean) threads)
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+      return -1;
+   }
+
+   private static void report(String game, String operation, String tiles, int n,
+         double[] result) {
+      System.out.printf("%-9s %-20s %-6s %5s %14.1f %14s\n", game, operation, tiles,
+         n == 0 ? "-" : n + "x" + n, result[0],
+         result[1] < 0 ? "n/a" : String.format("%.0f", result[1]));
+   }
+}
@@ -1,3 +1,4 @@
+import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
@@ -36,6 +37,17 @@ public interface WordSearchGame {
     *   implementing classes should have a default board.
     */
    String getBoard();
+
+   /**
+    * Writes the text getBoard returns to out, without building it as one
+    *   String first where the implementation allows.
+    *
+    * @param out where the board is written
+    * @throws IOException if out cannot be written
+    */
+   default void appendBoard(Appendable out) throws IOException {
+      out.append(getBoard());
+   }
    
    /**
     * Retrieves all scorable words on the game board, according to the stated game